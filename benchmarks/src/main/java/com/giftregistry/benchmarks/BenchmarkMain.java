@@ -0,0 +1,54 @@
+package com.giftregistry.benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+
+/**
+ * Runs JMH with the usual command-line options, but defaults to a JSON result file named
+ * after the current commit (results/jmh-&lt;sha&gt;.json) so runs can be diffed between commits.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (cli.getResultFormat().hasValue() || cli.getResult().hasValue()) {
+            new Runner(cli).run();
+            return;
+        }
+
+        new File("results").mkdirs();
+        Options options = builder
+                .parent(cli)
+                .resultFormat(ResultFormatType.JSON)
+                .result("results/jmh-" + commitId() + ".json")
+                .build();
+        new Runner(options).run();
+    }
+
+    private static String commitId() {
+        String fromEnv = System.getenv("GIT_COMMIT");
+        if (fromEnv != null && !fromEnv.isBlank()) {
+            return fromEnv.trim();
+        }
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(git.getInputStream()))) {
+                String sha = reader.readLine();
+                if (git.waitFor() == 0 && sha != null && !sha.isBlank()) {
+                    return sha.trim();
+                }
+            }
+        } catch (Exception ignored) {
+            // Not a git checkout; fall through
+        }
+        return "local";
+    }
+}
@@ -0,0 +1,72 @@
+package com.giftregistry.benchmarks;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.Gift;
+import com.giftregistry.server.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Fixtures {
+
+    static final int GIFTS_PER_EVENT = 5;
+
+    private Fixtures() {}
+
+    static User user(long id) {
+        User user = new User(id);
+        user.setUsername("host" + id);
+        user.setEmail("host" + id + "@example.com");
+        user.setPassword("not-a-real-password");
+        return user;
+    }
+
+    static Event event(long id) {
+        Event event = new Event("Sam's Birthday Party " + id, LocalDate.of(2026, 12, 24), user(id),
+                "Cake, games and a long evening with friends and family.", Event.EventType.BIRTHDAY);
+        event.setId(id);
+        event.setLocation("Community Hall, Main Street");
+        event.setUpdatedAt(LocalDateTime.of(2026, 10, 1, 12, 0));
+        return event;
+    }
+
+    // An event whose gifts collection is populated, as it is once Hibernate has loaded it
+    static Event eventWithGifts(long id) {
+        Event event = event(id);
+        for (int i = 0; i < GIFTS_PER_EVENT; i++) {
+            event.getGifts().add(gift(id * GIFTS_PER_EVENT + i, event));
+        }
+        return event;
+    }
+
+    static Gift gift(long id, Event event) {
+        Gift gift = new Gift("Wooden train set " + id, "Sam", new BigDecimal("49.99"), event);
+        gift.setId(id);
+        gift.setStore("Hauskinder");
+        gift.setDescription("Forty-piece set with a bridge and two engines.");
+        gift.setProductUrl("https://example.com/products/" + id);
+        gift.setImage("https://res.cloudinary.com/demo/image/upload/v1/gift-registry/" + id + ".jpg");
+        gift.setPlannedBy(new User(id % 100));
+        return gift;
+    }
+
+    static List<Event> eventsWithGifts(int count) {
+        List<Event> events = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            events.add(eventWithGifts(i));
+        }
+        return events;
+    }
+
+    static List<Gift> gifts(int count) {
+        Event event = event(1);
+        List<Gift> gifts = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            gifts.add(gift(i, event));
+        }
+        return gifts;
+    }
+}
@@ -0,0 +1,91 @@
+package com.giftregistry.benchmarks;
+
+import com.giftregistry.server.service.ImageVariantProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Images per second through the resize pipeline for typical upload sizes, against decoding
+ * at full resolution and scaling every variant straight from the original. Run with
+ * {@code -prof gc} to see bytes allocated per image; the decoded raster size is printed on teardown.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgs = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ImageVariantBenchmark {
+
+    @Param({"1600x1200", "4000x3000", "6000x4000"})
+    public String size;
+
+    private ImageVariantProcessor processor;
+    private Path source;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] dims = size.split("x");
+        source = Files.createTempFile("benchmark-source-", ".jpg");
+        ImageIO.write(photoLike(Integer.parseInt(dims[0]), Integer.parseInt(dims[1])), "jpeg", source.toFile());
+        processor = new ImageVariantProcessor();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.println("\n" + size + " pipeline stats: " + processor.stats());
+        Files.deleteIfExists(source);
+    }
+
+    @Benchmark
+    public long pipeline() throws IOException {
+        ImageVariantProcessor.VariantFiles variants = processor.createVariants(source);
+        variants.deleteAll();
+        return variants.decodedBytes();
+    }
+
+    @Benchmark
+    public int fullDecodeSingleStep() throws IOException {
+        BufferedImage original = ImageIO.read(source.toFile());
+        int written = 0;
+        for (ImageVariantProcessor.Variant variant : ImageVariantProcessor.Variant.values()) {
+            double scale = Math.min(1.0, (double) variant.getMaxEdge() / Math.max(original.getWidth(), original.getHeight()));
+            int width = (int) Math.round(original.getWidth() * scale);
+            int height = (int) Math.round(original.getHeight() * scale);
+            BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = target.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(original, 0, 0, width, height, null);
+            g.dispose();
+            Path file = Files.createTempFile("benchmark-variant-", ".jpg");
+            ImageIO.write(target, "jpeg", file.toFile());
+            Files.delete(file);
+            written++;
+        }
+        return written;
+    }
+
+    // Gradients plus noise so the JPEG encoder and decoder do realistic work
+    private static BufferedImage photoLike(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new java.awt.GradientPaint(0, 0, new Color(200, 90, 40), width, height, new Color(30, 80, 190)));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        Random random = new Random(42);
+        for (int i = 0; i < width * height / 20; i++) {
+            image.setRGB(random.nextInt(width), random.nextInt(height), random.nextInt(0xFFFFFF));
+        }
+        return image;
+    }
+}
@@ -0,0 +1,42 @@
+package com.giftregistry.benchmarks;
+
+import com.giftregistry.server.controller.EventController;
+import com.giftregistry.server.controller.GiftController;
+import com.giftregistry.server.dto.EventDTO;
+import com.giftregistry.server.dto.GiftDTO;
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.Gift;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-entity CPU cost of the controller DTO mappers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private Event event;
+    private Gift gift;
+
+    @Setup
+    public void setUp() {
+        event = Fixtures.eventWithGifts(1);
+        gift = event.getGifts().get(0);
+    }
+
+    @Benchmark
+    public EventDTO mapEventToDTO() {
+        return EventController.mapEventToDTO(event);
+    }
+
+    @Benchmark
+    public GiftDTO mapGiftToDTO() {
+        return GiftController.mapGiftToDTO(gift);
+    }
+}
@@ -0,0 +1,61 @@
+package com.giftregistry.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giftregistry.server.controller.EventController;
+import com.giftregistry.server.controller.GiftController;
+import com.giftregistry.server.dto.EventDTO;
+import com.giftregistry.server.dto.GiftDTO;
+import com.giftregistry.server.model.Event;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of response bodies at list sizes from a small page to a full-table dump.
+ * Output goes to a discarding stream so the measurement is the serializer, not buffer growth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    // Same defaults Spring Boot applies to the MVC message converter
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<EventDTO> eventDTOs;
+    private List<GiftDTO> giftDTOs;
+    private List<Event> events;
+
+    @Setup
+    public void setUp() {
+        events = Fixtures.eventsWithGifts(size);
+        eventDTOs = events.stream().map(EventController::mapEventToDTO).toList();
+        giftDTOs = Fixtures.gifts(size).stream().map(GiftController::mapGiftToDTO).toList();
+    }
+
+    @Benchmark
+    public void serializeEventDTOs() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), eventDTOs);
+    }
+
+    @Benchmark
+    public void serializeGiftDTOs() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), giftDTOs);
+    }
+
+    // Entities carry the creator User and the @JsonManagedReference gifts graph
+    @Benchmark
+    public void serializeEventEntities() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), events);
+    }
+}
@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useParams } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
+import { authHeaders } from '../services/api';
 import '../styles/EventDashboard.css'
 
 const EventDashboard: React.FC = () => {
@@ -25,7 +26,7 @@ const EventDashboard: React.FC = () => {
       setLoading(true);
       setError(null);
       // The user object is guaranteed to exist here if the effect runs
-      const response = await fetch(`/api/events/dashboard/${eventId}?creatorId=${user?.userId}`);
+      const response = await fetch(`/api/events/dashboard/${eventId}`, { headers: authHeaders() });
       
       if (!response.ok) {
         throw new Error('Failed to fetch dashboard');
@@ -51,9 +52,9 @@ const EventDashboard: React.FC = () => {
     
     try {
       // The user object is guaranteed to exist here if the component renders
-      const response = await fetch(`/api/events/${eventId}/invite?creatorId=${user?.userId}`, {
+      const response = await fetch(`/api/events/${eventId}/invite`, {
         method: 'POST',
-        headers: { 'Content-Type': 'application/json' },
+        headers: { 'Content-Type': 'application/json', ...authHeaders() },
         body: JSON.stringify(emails)
       });
 
@@ -268,7 +268,7 @@ const EventDetailPage: React.FC = () => {
                 <div key={gift.id} className="gift-card">
                   <div className="gift-image">
                     {gift.image ? (
-                      <img src={gift.image} alt={gift.name} />
+                      <img src={gift.cardImage || gift.image} alt={gift.name} />
                     ) : (
                       <div className="gift-placeholder">🎁</div>
                     )}
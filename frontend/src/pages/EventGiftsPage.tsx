@@ -15,6 +15,8 @@ interface Gift {
   description: string;
   price: number;
   image:string;
+  cardImage?: string;
+  thumbnailImage?: string;
   imageUrl: string;
   productUrl: string;
   store: string;
@@ -193,7 +195,7 @@ const GiftCard: React.FC<GiftCardProps> = ({ gift,onRemove }) => {
     <div className="gift-card">
       <div className="gift-image">
         {gift.image ? (
-          <img src={gift.image} alt={gift.name} />
+          <img src={gift.cardImage || gift.image} alt={gift.name} />
         ) : (
           <div className="gift-placeholder">🎁</div>
         )}
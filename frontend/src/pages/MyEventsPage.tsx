@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from "react";
 import { Link } from "react-router-dom";
-import { eventAPI } from "../services/api";
+import { authHeaders, eventAPI } from "../services/api";
 import type { Event } from "../types";
 import { useAuth } from "../context/AuthContext";
 import "../styles/MyEventPage.css";
@@ -121,7 +121,7 @@ const EventCard: React.FC<{
   const fetchRSVPStats = async () => {
     try {
       if (!user || !user.userId) return;
-      const response = await fetch(`/api/events/dashboard/${event.id}?creatorId=${user.userId}`);
+      const response = await fetch(`/api/events/dashboard/${event.id}`, { headers: authHeaders() });
       if (response.ok) {
         const data = await response.json();
         setRsvpStats({
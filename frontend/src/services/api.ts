@@ -21,6 +21,19 @@ const apiMultipart = axios.create({
   },
 });
 
+// Access token from /login, stored with the rest of the user in localStorage
+export const authHeaders = (): Record<string, string> => {
+  const token = JSON.parse(localStorage.getItem('user') || '{}').token;
+  return token ? { Authorization: `Bearer ${token}` } : {};
+};
+
+[api, apiMultipart].forEach((client) =>
+  client.interceptors.request.use((config) => {
+    Object.entries(authHeaders()).forEach(([name, value]) => config.headers.set(name, value));
+    return config;
+  })
+);
+
 // Gift API calls
 export const giftAPI = {
   getAllGifts: () => api.get('/gifts'),
@@ -75,12 +88,8 @@ export const eventAPI = {
    
   deleteEvent: (id: number) => api.delete(`/events/${id}`),
 
-  getRSVPStats: (eventId: number, creatorId: number) => {
-    if (!creatorId || creatorId <= 0) {
-      throw new Error('Invalid creator ID');
-    }
-    return api.get(`/events/dashboard/${eventId}?creatorId=${creatorId}`);
-  },
+  // The owner comes from the bearer token the interceptor attaches
+  getRSVPStats: (eventId: number) => api.get(`/events/dashboard/${eventId}`),
 };
 
 export default api;
@@ -31,6 +31,9 @@ export interface Gift {
   notes?: string;
   price: number;
   image?: string;
+  cardImage?: string;
+  thumbnailImage?: string;
+  reservedById?: number;
   description?: string;
   reservedBy?: User;
   status: 'PLANNED' | 'PURCHASED' | 'CANCELLED';
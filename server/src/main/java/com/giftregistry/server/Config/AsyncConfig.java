@@ -1,10 +1,44 @@
 package com.giftregistry.server.Config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
-    // Async configuration for email sending
-}
\ No newline at end of file
+    // @Async work runs on Spring Boot's applicationTaskExecutor: the bounded spring.task.execution.pool
+    // by default, or one virtual thread per task when spring.threads.virtual.enabled=true.
+    // spring.task.execution.mode=force keeps it (and its @Async default) alongside the pools below
+
+    // Image uploads get their own small pool so a burst of large files cannot starve other async work
+    @Bean(name = "imageUploadExecutor")
+    public ThreadPoolTaskExecutor imageUploadExecutor(
+            @Value("${app.images.upload.pool-size:2}") int poolSize,
+            @Value("${app.images.upload.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Resizing is CPU bound, so it gets at most one thread per core however many uploads are running
+    @Bean(name = "imageProcessingExecutor")
+    public ThreadPoolTaskExecutor imageProcessingExecutor(
+            @Value("${app.images.processing.pool-size:0}") int poolSize,
+            @Value("${app.images.processing.queue-capacity:50}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-resize-");
+        return executor;
+    }
+}
@@ -2,7 +2,10 @@
 package com.giftregistry.server.Config;
 
 import com.cloudinary.Cloudinary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,8 +13,12 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+// Only needed, and only validated, when Cloudinary is the image store
+@ConditionalOnProperty(name = "app.images.store", havingValue = "cloudinary", matchIfMissing = true)
 public class CloudinaryConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(CloudinaryConfig.class);
+
     @Value("${cloudinary.cloud-name:}")
     private String cloudName;
 
@@ -23,7 +30,6 @@ public class CloudinaryConfig {
 
     @Bean
     public Cloudinary cloudinary() {
-        System.out.println("🔧 Initializing Cloudinary...");
         
         // Validate required properties
         if (cloudName == null || cloudName.isEmpty()) {
@@ -36,10 +42,8 @@ public class CloudinaryConfig {
             throw new IllegalStateException("Cloudinary API secret is required");
         }
         
-        System.out.println("   Cloud Name: " + cloudName);
-        System.out.println("   API Key: " + apiKey);
-        System.out.println("   API Secret: " + (apiSecret.length() > 4 ? 
-            "***" + apiSecret.substring(apiSecret.length() - 4) : "invalid"));
+        // Credentials are never logged
+        log.info("Initializing Cloudinary for cloud {}", cloudName);
         
         Map<String, String> config = new HashMap<>();
         config.put("cloud_name", cloudName);
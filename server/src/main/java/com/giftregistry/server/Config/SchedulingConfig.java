@@ -0,0 +1,10 @@
+package com.giftregistry.server.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Scheduling for background drains such as the email outbox
+}
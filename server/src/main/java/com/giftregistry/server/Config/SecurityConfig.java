@@ -1,10 +1,17 @@
 package com.giftregistry.server.Config;
 
+import com.giftregistry.server.service.AccessTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
@@ -15,6 +22,9 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private AccessTokenService accessTokenService;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -22,10 +32,24 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             // 2. Disable CSRF (standard for stateless REST APIs)
             .csrf(csrf -> csrf.disable())
+            // Bearer tokens carry the caller's identity, so no HTTP session is created
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new AccessTokenFilter(accessTokenService), UsernamePasswordAuthenticationFilter.class)
+            .exceptionHandling(errors -> errors.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             // 3. Define Public Endpoints
             .authorizeHttpRequests(authz -> authz
                 // CRITICAL: Allow Root URL for Render Health Checks
                 .requestMatchers("/").permitAll()
+                // Owner-only event endpoints need a token from /api/login
+                .requestMatchers(HttpMethod.GET, "/api/events/dashboard/*", "/api/events/*/rsvps",
+                        "/api/events/*/rsvps/export", "/api/events/*/invite/*", "/api/events/export",
+                        "/api/gifts/export").authenticated()
+                .requestMatchers(HttpMethod.POST, "/api/events/*/invite").authenticated()
+                .requestMatchers(HttpMethod.PUT, "/api/events/*").authenticated()
+                .requestMatchers(HttpMethod.DELETE, "/api/events/*").authenticated()
+                // Operational stats reveal query shapes, cache and queue internals; never public
+                .requestMatchers("/api/sql/**", "/api/cache/**", "/api/mail/**",
+                        "/api/events/key-cache/**", "/api/gifts/images/stats", "/actuator/prometheus").authenticated()
                 // Allow your existing API endpoints
                 .requestMatchers(
                     "/api/login",
@@ -34,7 +58,9 @@ public class SecurityConfig {
                     "/api/gifts/**",
                     "/api/events/**",
                     "/api/users/**",
-                    "/api/rsvp/**"
+                    "/api/rsvp/**",
+                    "/actuator/health",
+                    "/api/images/**"
                 ).permitAll()
                 // Lock everything else
                 .anyRequest().authenticated()
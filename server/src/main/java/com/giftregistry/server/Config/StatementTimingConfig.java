@@ -0,0 +1,27 @@
+package com.giftregistry.server.Config;
+
+import com.giftregistry.server.service.StatementStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class StatementTimingConfig {
+
+    // Static, and StatementStats resolved on first use, so the post-processor does not pull beans in early
+    @Bean
+    public static BeanPostProcessor statementTimingPostProcessor(ObjectProvider<StatementStats> statementStats) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource(dataSource, statementStats::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
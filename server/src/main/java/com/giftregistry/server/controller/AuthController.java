@@ -2,6 +2,7 @@ package com.giftregistry.server.controller;
 
 import com.giftregistry.server.model.User;
 import com.giftregistry.server.repository.UserRepository;
+import com.giftregistry.server.service.AccessTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +20,9 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AccessTokenService accessTokenService;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest) {
         try {
@@ -29,8 +33,12 @@ public class AuthController {
             
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
+                // Send as "Authorization: Bearer <token>" to owner-only endpoints
+                AccessTokenService.AccessToken token = accessTokenService.issue(user.getId());
                 Map<String, Object> response = new HashMap<>();
                 response.put("message", "Login successful");
+                response.put("token", token.value());
+                response.put("tokenExpiresAt", token.expiresAt().toString());
                 response.put("userId", user.getId());
                 response.put("email", user.getEmail());
                 response.put("username", user.getUsername());
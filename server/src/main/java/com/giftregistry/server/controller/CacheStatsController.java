@@ -0,0 +1,36 @@
+package com.giftregistry.server.controller;
+
+import com.giftregistry.server.service.CacheStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CacheStatsController {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheStatsController.class);
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    /**
+     * Per-region hit ratios for the Hibernate second-level and query caches
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getCacheStats() {
+        try {
+            return ResponseEntity.ok(cacheStatsService.stats());
+        } catch (Exception e) {
+            log.error("Error fetching cache stats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error fetching cache stats"));
+        }
+    }
+}
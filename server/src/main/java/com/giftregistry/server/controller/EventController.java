@@ -5,28 +5,53 @@ import com.giftregistry.server.model.Event;
 import com.giftregistry.server.model.RSVP;
 import com.giftregistry.server.model.User;
 import com.giftregistry.server.repository.EventRepository;
+import com.giftregistry.server.repository.GiftRepository;
 import com.giftregistry.server.repository.UserRepository;
 import com.giftregistry.server.service.EmailService;
+import com.giftregistry.server.service.EventKeyCache;
+import com.giftregistry.server.service.EventSearchIndex;
+import com.giftregistry.server.service.EventVersionService;
+import com.giftregistry.server.service.ExportService;
+import com.giftregistry.server.service.ImageService;
+import com.giftregistry.server.service.InvitationJob;
+import com.giftregistry.server.service.InvitationJobService;
+import com.giftregistry.server.service.InvitationRenderer;
+import com.giftregistry.server.service.RSVPCounterService;
 import com.giftregistry.server.repository.RSVPRepository;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/events")
 @CrossOrigin(origins = "http://localhost:3000")
 public class EventController {
 
+    private static final Logger log = LoggerFactory.getLogger(EventController.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private EventRepository eventRepository;
 
@@ -36,10 +61,62 @@ public class EventController {
     @Autowired
     private RSVPRepository rsvpRepository;
 
+    @Autowired
+    private GiftRepository giftRepository;
+
     @Autowired
     private EmailService emailService;
 
-    private EventDTO mapEventToDTO(Event event) {
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Autowired
+    private EventKeyCache eventKeyCache;
+
+    @Autowired
+    private RSVPCounterService rsvpCounterService;
+
+    @Autowired
+    private InvitationJobService invitationJobService;
+
+    @Autowired
+    private InvitationRenderer invitationRenderer;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private EventVersionService eventVersionService;
+
+    @Autowired
+    private ExportService exportService;
+
+    // Static and public so the benchmarks module can measure it directly
+    public static EventDTO mapEventToDTO(Event event) {
+        EventDTO dto = mapEventFields(event);
+        if (event.getGifts() != null && !event.getGifts().isEmpty()) {
+            dto.setGiftIds(event.getGifts().stream()
+                .map(g -> g.getId())
+                .toList());
+        }
+        return dto;
+    }
+
+    // Fills gift ids for a whole list of projected DTOs with one grouped query
+    private List<EventDTO> withGiftIds(List<EventDTO> dtos) {
+        if (dtos.isEmpty()) {
+            return dtos;
+        }
+        List<Long> eventIds = dtos.stream().map(EventDTO::getId).toList();
+        Map<Long, List<Long>> giftIdsByEvent = new HashMap<>();
+        for (Object[] row : giftRepository.findGiftIdsByEventIds(eventIds)) {
+            giftIdsByEvent.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((Long) row[1]);
+        }
+        dtos.forEach(dto -> dto.setGiftIds(giftIdsByEvent.get(dto.getId())));
+        return dtos;
+    }
+
+    private static EventDTO mapEventFields(Event event) {
         EventDTO dto = new EventDTO();
         dto.setId(event.getId());
         dto.setName(event.getName());
@@ -54,11 +131,6 @@ public class EventController {
             dto.setCreatorId(event.getCreator().getId());
             dto.setCreatorUsername(event.getCreator().getUsername());
         }
-        if (event.getGifts() != null && !event.getGifts().isEmpty()) {
-            dto.setGiftIds(event.getGifts().stream()
-                .map(g -> g.getId())
-                .toList());
-        }
         return dto;
     }
 
@@ -68,7 +140,7 @@ public class EventController {
     @PostMapping
     public ResponseEntity<?> createEvent(@RequestBody Event event, @RequestParam Long creatorId) {
         try {
-            System.out.println("🎉 Creating event: " + event.getName() + " for creator: " + creatorId);
+            log.debug("Creating event {} for creator {}", event.getName(), creatorId);
 
             // Validate that creator exists
             Optional<User> creator = userRepository.findById(creatorId);
@@ -86,9 +158,9 @@ public class EventController {
             event.setCreatedAt(LocalDateTime.now());
             event.setUpdatedAt(LocalDateTime.now());
             Event savedEvent = eventRepository.save(event);
+            eventSearchIndex.index(savedEvent);
             
-            System.out.println("✅ Event created successfully with ID: " + savedEvent.getId() + " and Key: " + 
-            savedEvent.getEventKey());
+            log.info("Event {} created with key {}", savedEvent.getId(), savedEvent.getEventKey());
         
             emailService.sendEventCreationEmail(creatorUser.getEmail(), savedEvent);
 
@@ -100,8 +172,7 @@ public class EventController {
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
         } catch (Exception e) {
-            System.err.println("❌ Error creating event: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error creating event", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error creating event: " + e.getMessage()));
         }
@@ -111,8 +182,12 @@ public class EventController {
      * Get event dashboard for creator
      */
     @GetMapping("/dashboard/{eventId}")
-    public ResponseEntity<?> getEventDashboard(@PathVariable Long eventId, @RequestParam Long creatorId) {
+    public ResponseEntity<?> getEventDashboard(@PathVariable Long eventId, @AuthenticationPrincipal Long userId) {
         try {
+            ResponseEntity<?> denied = checkOwner(eventId, userId, "Access denied");
+            if (denied != null) {
+                return denied;
+            }
             Optional<Event> eventOptional = eventRepository.findById(eventId);
             if (eventOptional.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -120,17 +195,12 @@ public class EventController {
             }
 
             Event event = eventOptional.get();
-            
-            // Verify the user is the creator
-            if (!event.getCreator().getId().equals(creatorId)) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("message", "Access denied"));
-            }
 
             // Get RSVP counts
-            long attendingCount = rsvpRepository.countByEventAndStatus(event, RSVP.RSVPStatus.ACCEPTED);
-            long declinedCount = rsvpRepository.countByEventAndStatus(event, RSVP.RSVPStatus.DECLINED);
-            long pendingCount = rsvpRepository.countByEventAndStatus(event, RSVP.RSVPStatus.PENDING);
+            Map<RSVP.RSVPStatus, Long> counts = rsvpCounterService.getCounts(eventId);
+            long attendingCount = counts.get(RSVP.RSVPStatus.ACCEPTED);
+            long declinedCount = counts.get(RSVP.RSVPStatus.DECLINED);
+            long pendingCount = counts.get(RSVP.RSVPStatus.PENDING);
 
             EventDTO dto = mapEventToDTO(event);
 
@@ -144,7 +214,7 @@ public class EventController {
             return ResponseEntity.ok(dashboard);
 
         } catch (Exception e) {
-            System.err.println("❌ Error fetching dashboard: " + e.getMessage());
+            log.error("Error fetching dashboard", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error fetching dashboard"));
         }
@@ -155,9 +225,13 @@ public class EventController {
      */
     @PostMapping("/{eventId}/invite")
     public ResponseEntity<?> sendInvitations(@PathVariable Long eventId, 
-                                        @RequestParam Long creatorId,
+                                        @AuthenticationPrincipal Long userId,
                                         @RequestBody List<String> guestEmails) {
     try {
+        ResponseEntity<?> denied = checkOwner(eventId, userId, "Access denied");
+        if (denied != null) {
+            return denied;
+        }
         Optional<Event> eventOptional = eventRepository.findById(eventId);
         if (eventOptional.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -165,141 +239,261 @@ public class EventController {
         }
 
         Event event = eventOptional.get();
-        
-        // Verify the user is the creator
-        if (!event.getCreator().getId().equals(creatorId)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("message", "Access denied"));
-        }
 
-        List<String> successfulEmails = new ArrayList<>();
-        List<String> failedEmails = new ArrayList<>();
-
-        // Create RSVP records for each guest and send emails
-        for (String email : guestEmails) {
-            try {
-                RSVP rsvp = new RSVP();
-                rsvp.setGuestEmail(email);
-                rsvp.setEvent(event);
-                rsvp.setStatus(RSVP.RSVPStatus.PENDING);
-                RSVP savedRSVP = rsvpRepository.save(rsvp);
-
-                // Send RSVP invitation email
-                emailService.sendRSVPInvitation(email, event, savedRSVP.getId());
-                successfulEmails.add(email);
-                
-                System.out.println("✅ RSVP invitation sent to: " + email);
-
-            } catch (Exception e) {
-                System.err.println("❌ Failed to send invitation to: " + email + " - " + e.getMessage());
-                failedEmails.add(email + " (" + e.getMessage() + ")");
-            }
-        }
+        // RSVP rows and emails are handled in the background; poll the job for progress
+        InvitationJob job = invitationJobService.createJob(eventId, guestEmails);
+        invitationJobService.runJob(job, event, guestEmails);
+        log.info("Queued invitation job {} for {} guests", job.getId(), guestEmails.size());
 
         Map<String, Object> response = new HashMap<>();
-        response.put("message", "Invitation process completed");
-        response.put("successful", successfulEmails);
-        response.put("failed", failedEmails);
-        response.put("totalSent", successfulEmails.size());
-        response.put("totalFailed", failedEmails.size());
+        response.put("message", "Invitations are being sent");
+        response.put("jobId", job.getId());
+        response.put("total", job.getTotal());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
 
     } catch (Exception e) {
-        System.err.println("❌ Error sending invitations: " + e.getMessage());
+        log.error("Error sending invitations", e);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("message", "Error sending invitations: " + e.getMessage()));
     }
 }
 
+    /**
+     * Get progress of an invitation job
+     */
+    @GetMapping("/{eventId}/invite/{jobId}")
+    public ResponseEntity<?> getInvitationJob(@PathVariable Long eventId, @PathVariable String jobId,
+                                              @AuthenticationPrincipal Long userId) {
+        // Progress lists failed guest addresses, so only the event's owner may read it
+        ResponseEntity<?> denied = checkOwner(eventId, userId, "Access denied");
+        if (denied != null) {
+            return denied;
+        }
+        InvitationJob job = invitationJobService.getJob(jobId);
+        if (job == null || !job.getEventId().equals(eventId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Invitation job not found"));
+        }
+        return ResponseEntity.ok(job);
+    }
+
     /**
      * Find event by key (for guests)
      */
     @GetMapping("/key/{eventKey}")
-    public ResponseEntity<?> getEventByKey(@PathVariable String eventKey) {
+    public ResponseEntity<?> getEventByKey(@PathVariable String eventKey, WebRequest webRequest) {
         try {
+            EventKeyCache.Entry cached = eventKeyCache.get(eventKey);
+            if (cached != null) {
+                return conditionalOk(webRequest,
+                        EventVersionService.etag("event", cached.dto().getId(), cached.version()), cached.dto());
+            }
+            // Read the version before the event, so a concurrent change can only make the tag stale, never wrong;
+            // the ticket makes the cache refuse this fill if the event is invalidated in the meantime
+            long ticket = eventKeyCache.fillTicket();
+            Optional<Long> version = eventVersionService.currentByKey(eventKey);
             Optional<Event> event = eventRepository.findByEventKey(eventKey);
-            if (event.isPresent()) {
-                Event eventResponse = event.get();
-                eventResponse.setCreator(null); // Hide creator details
-                EventDTO dto = mapEventToDTO(eventResponse);
+            if (event.isPresent() && version.isPresent()) {
+                String etag = EventVersionService.etag("event", event.get().getId(), version.get());
+                if (webRequest.checkNotModified(etag)) {
+                    return notModified(etag);
+                }
+                EventDTO dto = mapEventToDTO(event.get());
+                // Hide creator details from guests
                 dto.setCreatorId(null);
-                return ResponseEntity.ok(dto);
+                dto.setCreatorUsername(null);
+                eventKeyCache.put(eventKey, dto, version.get(), ticket);
+                return conditionalOk(webRequest, etag, dto);
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("message", "Event not found"));
             }
         } catch (Exception e) {
-            System.err.println("❌ Error fetching event: " + e.getMessage());
+            log.error("Error fetching event", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error fetching event"));
         }
     }
 
+    // 304 when If-None-Match already names this version, otherwise the body tagged with it
+    static ResponseEntity<?> conditionalOk(WebRequest webRequest, String etag, Object body) {
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body);
+    }
+
+    // no-cache lets browsers keep the body but revalidate with If-None-Match on every use
+    static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    // Ownership from the token's user id and a single-column read; null means the caller may go ahead
+    private ResponseEntity<?> checkOwner(Long eventId, Long userId, String deniedMessage) {
+        Optional<Long> creatorId = eventRepository.findCreatorId(eventId);
+        if (creatorId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Event not found"));
+        }
+        if (!creatorId.get().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", deniedMessage));
+        }
+        return null;
+    }
+
+    /**
+     * Hit, miss and eviction counters for the event key cache
+     */
+    @GetMapping("/key-cache/stats")
+    public ResponseEntity<?> getEventKeyCacheStats() {
+        return ResponseEntity.ok(eventKeyCache.stats());
+    }
+
     /**
      * Get RSVP details for an event
      */
     @GetMapping("/{eventId}/rsvps")
-    public ResponseEntity<?> getEventRSVPs(@PathVariable Long eventId, @RequestParam Long creatorId) {
+    public ResponseEntity<?> getEventRSVPs(@PathVariable Long eventId, @AuthenticationPrincipal Long userId) {
         try {
-            Optional<Event> eventOptional = eventRepository.findById(eventId);
-            if (eventOptional.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("message", "Event not found"));
-            }
-
-            Event event = eventOptional.get();
-            
-            // Verify the user is the creator
-            if (!event.getCreator().getId().equals(creatorId)) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("message", "Access denied"));
+            ResponseEntity<?> denied = checkOwner(eventId, userId, "Access denied");
+            if (denied != null) {
+                return denied;
             }
 
-            List<RSVP> rsvps = rsvpRepository.findByEvent(event);
+            List<RSVP> rsvps = rsvpRepository.findByEventId(eventId);
             return ResponseEntity.ok(rsvps);
 
         } catch (Exception e) {
-            System.err.println("❌ Error fetching RSVPs: " + e.getMessage());
+            log.error("Error fetching RSVPs", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error fetching RSVPs"));
         }
     }
 
 
+    /**
+     * Export an event's RSVPs as NDJSON or CSV (creator only)
+     */
+    @GetMapping("/{eventId}/rsvps/export")
+    public void exportEventRSVPs(@PathVariable Long eventId, @AuthenticationPrincipal Long userId,
+                                 @RequestParam(value = "format", required = false) String format,
+                                 HttpServletResponse response) throws IOException {
+        Optional<Long> owner = eventRepository.findCreatorId(eventId);
+        if (owner.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Event not found");
+            return;
+        }
+        if (!owner.get().equals(userId)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied");
+            return;
+        }
+        exportService.export(ExportService.Dataset.RSVPS, format, userId, eventId, response);
+    }
+
+    /**
+     * Export the caller's events as NDJSON or CSV; streamed, so safe for any number of events
+     */
+    @GetMapping("/export")
+    public void exportEvents(@AuthenticationPrincipal Long userId,
+                             @RequestParam(value = "format", required = false) String format,
+                             HttpServletResponse response) throws IOException {
+        exportService.export(ExportService.Dataset.EVENTS, format, userId, null, response);
+    }
+
     /**
      * Get all events (public - for all users to browse)
      */
     @GetMapping("/public")
     public ResponseEntity<?> getAllPublicEvents() {
         try {
-            List<Event> events = eventRepository.findAll();
-            List<EventDTO> dtos = events.stream()
-                        .map(this::mapEventToDTO)
-                        .collect(Collectors.toList());
-            System.out.println("📋 Found " + dtos.size() + " public events");
+            List<EventDTO> dtos = withGiftIds(eventRepository.findAllDtos());
+            log.debug("Found {} public events", dtos.size());
             return ResponseEntity.ok(dtos);
         } catch (Exception e) {
-            System.err.println("❌ Error fetching public events: " + e.getMessage());
+            log.error("Error fetching public events", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error fetching events"));
         }
     }
 
+    /**
+     * Get public events one page at a time, newest first.
+     * Pass the returned nextCursor as "after" to fetch the following page.
+     */
+    @GetMapping("/public/page")
+    public ResponseEntity<?> getPublicEventsPage(@RequestParam(required = false) String after,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        try {
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            // Fetch one extra row to know whether another page exists
+            Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+            List<EventDTO> dtos;
+            if (after == null || after.isBlank()) {
+                dtos = eventRepository.findPublicPage(pageable);
+            } else {
+                String[] cursor = decodeCursor(after);
+                if (cursor == null) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "Invalid cursor"));
+                }
+                dtos = cursor[0].isEmpty()
+                        ? eventRepository.findUndatedPublicPageAfter(Long.valueOf(cursor[1]), pageable)
+                        : eventRepository.findPublicPageAfter(LocalDateTime.parse(cursor[0]), Long.valueOf(cursor[1]), pageable);
+            }
+
+            String nextCursor = null;
+            if (dtos.size() > pageSize) {
+                dtos = dtos.subList(0, pageSize);
+                EventDTO last = dtos.get(pageSize - 1);
+                nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+            }
+            withGiftIds(dtos);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("events", dtos);
+            response.put("nextCursor", nextCursor);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error fetching public events page", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error fetching events"));
+        }
+    }
+
+    // "<createdAt>|<id>", or "|<id>" for an event without a createdAt
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = (createdAt != null ? createdAt.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                return null;
+            }
+            if (!parts[0].isEmpty()) {
+                LocalDateTime.parse(parts[0]);
+            }
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
     /**
      * Get events by creator (user)
      */
     @GetMapping("/creator/{creatorId}")
     public ResponseEntity<?> getEventsByCreator(@PathVariable Long creatorId) {
         try {
-            List<Event> events = eventRepository.findByCreatorId(creatorId);
-            List<EventDTO> dtos = events.stream()
-                    .map(this::mapEventToDTO)
-                    .collect(Collectors.toList());
-            System.out.println("📋 Found " + dtos.size() + " events for creator: " + creatorId);
+            List<EventDTO> dtos = withGiftIds(eventRepository.findDtosByCreatorId(creatorId));
+            log.debug("Found {} events for creator {}", dtos.size(), creatorId);
             return ResponseEntity.ok(dtos);
         } catch (Exception e) {
-            System.err.println("❌ Error fetching creator events: " + e.getMessage());
+            log.error("Error fetching creator events", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error fetching events"));
         }
@@ -309,20 +503,29 @@ public class EventController {
      * Get event by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getEventById(@PathVariable Long id) {
+    public ResponseEntity<?> getEventById(@PathVariable Long id, WebRequest webRequest) {
         try {
+            Optional<Long> version = eventVersionService.current(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "Event not found"));
+            }
+            String etag = EventVersionService.etag("event", id, version.get());
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag);
+            }
             Optional<Event> eventOpt = eventRepository.findById(id);
             if (eventOpt.isPresent()) {
                 Event event = eventOpt.get();
-                System.out.println("📖 Found event: " + event.getName());
+                log.debug("Found event {}", event.getId());
                 EventDTO dto = mapEventToDTO(event);
-                return ResponseEntity.ok(dto);
+                return conditionalOk(webRequest, etag, dto);
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("message", "Event not found"));
             }
         } catch (Exception e) {
-            System.err.println("❌ Error fetching event: " + e.getMessage());
+            log.error("Error fetching event", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error fetching event"));
         }
@@ -332,8 +535,13 @@ public class EventController {
      * Update event - only allowed for event creator
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateEvent(@PathVariable Long id, @RequestBody Event eventDetails, @RequestParam Long creatorId) {
+    public ResponseEntity<?> updateEvent(@PathVariable Long id, @RequestBody Event eventDetails,
+                                         @AuthenticationPrincipal Long userId) {
         try {
+            ResponseEntity<?> denied = checkOwner(id, userId, "Only the event creator can update this event");
+            if (denied != null) {
+                return denied;
+            }
             Optional<Event> eventOptional = eventRepository.findById(id);
             if (eventOptional.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -342,12 +550,6 @@ public class EventController {
 
             Event event = eventOptional.get();
             
-            // Check if the user is the creator of this event
-            if (!event.getCreator().getId().equals(creatorId)) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("message", "Only the event creator can update this event"));
-            }
-            
             // Update fields if provided
             if (eventDetails.getName() != null) event.setName(eventDetails.getName());
             if (eventDetails.getDescription() != null) event.setDescription(eventDetails.getDescription());
@@ -358,9 +560,11 @@ public class EventController {
             event.setUpdatedAt(LocalDateTime.now());
             
             Event updatedEvent = eventRepository.save(event);
+            eventSearchIndex.index(updatedEvent);
+            eventVersionService.changed(updatedEvent.getId());
             EventDTO dto = mapEventToDTO(updatedEvent);
             
-            System.out.println("✅ Event updated successfully: " + updatedEvent.getName());
+            log.info("Event {} updated", updatedEvent.getId());
 
             return ResponseEntity.ok(Map.of(
                 "message", "Event updated successfully!",
@@ -368,7 +572,7 @@ public class EventController {
             ));
 
         } catch (Exception e) {
-            System.err.println("❌ Error updating event: " + e.getMessage());
+            log.error("Error updating event", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error updating event"));
         }
@@ -378,29 +582,31 @@ public class EventController {
      * Delete event - only allowed for event creator
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteEvent(@PathVariable Long id, @RequestParam Long creatorId) {
+    public ResponseEntity<?> deleteEvent(@PathVariable Long id, @AuthenticationPrincipal Long userId) {
         try {
-            Optional<Event> eventOptional = eventRepository.findById(id);
-            if (eventOptional.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("message", "Event not found"));
+            ResponseEntity<?> denied = checkOwner(id, userId, "Only the event creator can delete this event");
+            if (denied != null) {
+                return denied;
             }
 
-            Event event = eventOptional.get();
-            
-            // Check if the user is the creator of this event
-            if (!event.getCreator().getId().equals(creatorId)) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("message", "Only the event creator can delete this event"));
-            }
-            
+            // Gifts go with the event through the cascade, so gather their images first
+            List<Object[]> giftImages = giftRepository.findImageUrlsByEventId(id);
             eventRepository.deleteById(id);
-            System.out.println("🗑️ Event deleted: " + id);
+            for (Object[] urls : giftImages) {
+                for (Object url : urls) {
+                    imageService.deleteImage((String) url);
+                }
+            }
+            eventSearchIndex.remove(id);
+            eventKeyCache.invalidate(id);
+            rsvpCounterService.evict(id);
+            invitationRenderer.evict(id);
+            log.info("Event {} deleted", id);
             
             return ResponseEntity.ok(Map.of("message", "Event deleted successfully"));
 
         } catch (Exception e) {
-            System.err.println("❌ Error deleting event: " + e.getMessage());
+            log.error("Error deleting event", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error deleting event"));
         }
@@ -422,15 +628,12 @@ public ResponseEntity<?> getEventsByCategory(@PathVariable String category) {
         }
 
         // 2. Call the correct, type-safe repository method
-        List<Event> events = eventRepository.findByType(eventType);
-        List<EventDTO> dtos = events.stream()
-                    .map(this::mapEventToDTO)
-                    .collect(Collectors.toList());
-        System.out.println("📋 Found " + dtos.size() + " events in category: " + category);
+        List<EventDTO> dtos = withGiftIds(eventRepository.findDtosByType(eventType));
+        log.debug("Found {} events in category {}", dtos.size(), category);
         return ResponseEntity.ok(dtos);
 
     } catch (Exception e) {
-        System.err.println("❌ Error fetching events by category: " + e.getMessage());
+        log.error("Error fetching events by category", e);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("message", "Error fetching events"));
     }
@@ -443,33 +646,44 @@ public ResponseEntity<?> getEventsByCategory(@PathVariable String category) {
     public ResponseEntity<?> getUpcomingEvents() {
         try {
             LocalDate today = LocalDate.now();
-            List<Event> events = eventRepository.findByDateAfter(today);
-            List<EventDTO> dtos = events.stream()
-                    .map(this::mapEventToDTO)
-                    .collect(Collectors.toList());    
-            System.out.println("📋 Found " + dtos.size() + " upcoming events");
+            List<EventDTO> dtos = withGiftIds(eventRepository.findDtosByDateAfter(today));
+            log.debug("Found {} upcoming events", dtos.size());
             return ResponseEntity.ok(dtos);
         } catch (Exception e) {
-            System.err.println("❌ Error fetching upcoming events: " + e.getMessage());
+            log.error("Error fetching upcoming events", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error fetching upcoming events"));
         }
     }
 
     /**
-     * Search events by name or description
+     * Search events whose name or description contains every word of the query, ranked by relevance
      */
     @GetMapping("/search")
-    public ResponseEntity<?> searchEvents(@RequestParam String query) {
+    public ResponseEntity<?> searchEvents(@RequestParam String query,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size) {
         try {
-            List<Event> events = eventRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query);
-            List<EventDTO> dtos = events.stream()
-                    .map(this::mapEventToDTO)
-                    .collect(Collectors.toList());
-            System.out.println("🔍 Found " + dtos.size() + " events matching: " + query);
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            List<Long> rankedIds = eventSearchIndex.search(query, Math.max(0, page), pageSize);
+
+            // An IN query does not keep the ranking, so restore it before adding gift ids
+            Map<Long, EventDTO> byId = new HashMap<>();
+            if (!rankedIds.isEmpty()) {
+                for (EventDTO dto : eventRepository.findDtosByIdIn(rankedIds)) {
+                    byId.put(dto.getId(), dto);
+                }
+            }
+            List<EventDTO> dtos = new ArrayList<>(rankedIds.size());
+            for (Long rankedId : rankedIds) {
+                EventDTO dto = byId.get(rankedId);
+                if (dto != null) dtos.add(dto);
+            }
+            withGiftIds(dtos);
+            log.debug("Found {} events matching {}", dtos.size(), query);
             return ResponseEntity.ok(dtos);
         } catch (Exception e) {
-            System.err.println("❌ Error searching events: " + e.getMessage());
+            log.error("Error searching events", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error searching events"));
         }
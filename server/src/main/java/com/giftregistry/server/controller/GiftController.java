@@ -5,16 +5,35 @@ import com.giftregistry.server.model.Gift;
 import com.giftregistry.server.model.User;
 import com.giftregistry.server.repository.EventRepository;
 import com.giftregistry.server.repository.GiftRepository;
+import com.giftregistry.server.repository.UserRepository;
+import com.giftregistry.server.service.EventVersionService;
+import com.giftregistry.server.service.ExportService;
+import com.giftregistry.server.service.GiftImageUploader;
+import com.giftregistry.server.service.GiftImportService;
+import com.giftregistry.server.service.ImageDeletionQueue;
 import com.giftregistry.server.service.ImageService;
+import com.giftregistry.server.service.ImageVariantProcessor;
 import com.giftregistry.server.dto.GiftDTO;
+import jakarta.servlet.http.HttpServletResponse;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -26,22 +45,49 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class GiftController {
 
+    private static final Logger log = LoggerFactory.getLogger(GiftController.class);
+
     @Autowired
     private GiftRepository giftRepository;
 
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private ImageService imageService;
 
-    private GiftDTO mapGiftToDTO(Gift gift) {
+    @Autowired
+    private EventVersionService eventVersionService;
+
+    @Autowired
+    private GiftImageUploader giftImageUploader;
+
+    @Autowired
+    private ImageVariantProcessor imageVariantProcessor;
+
+    @Autowired
+    private ImageDeletionQueue imageDeletionQueue;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private GiftImportService giftImportService;
+
+    // Static and public so the benchmarks module can measure it directly
+    public static GiftDTO mapGiftToDTO(Gift gift) {
         GiftDTO dto = new GiftDTO();
         dto.setId(gift.getId());
         dto.setName(gift.getName());
         dto.setRecipient(gift.getRecipient());
         dto.setPrice(gift.getPrice());
         dto.setImage(gift.getImage());
+        dto.setCardImage(gift.getCardImage());
+        dto.setThumbnailImage(gift.getThumbnailImage());
+        dto.setImageStatus(gift.getImageStatus() != null ? gift.getImageStatus().name() : null);
         dto.setProductUrl(gift.getProductUrl());
         dto.setDescription(gift.getDescription());
         dto.setStore(gift.getStore());
@@ -49,11 +95,12 @@ public class GiftController {
         dto.setCreatedAt(gift.getCreatedAt());
         dto.setUpdatedAt(gift.getUpdatedAt());
         dto.setPlannedById(gift.getPlannedBy() != null ? gift.getPlannedBy().getId() : null);
+        dto.setReservedById(gift.getReservedBy() != null ? gift.getReservedBy().getId() : null);
         return dto;
     }
 
     /**
-     * Add Gift with Cloudinary Image Upload
+     * Add Gift; an uploaded image finishes in the background (imageStatus PENDING until then)
      */
     @PostMapping(consumes = {"multipart/form-data"})
     public ResponseEntity<?> addGift(
@@ -84,18 +131,31 @@ public class GiftController {
             gift.setStatus(Gift.GiftStatus.PLANNED);
 
             // Decide how to store image (URL or upload)
-            String imgUrl = null;
+            Path stagedImage = null;
             if (image != null && !image.isEmpty()) {
-                imgUrl = imageService.uploadImage(image);
+                stagedImage = imageService.stageUpload(image);
+                gift.setImageStatus(Gift.ImageStatus.PENDING);
             } else if (imageUrl != null && !imageUrl.isBlank()) {
-                imgUrl = imageUrl;
+                gift.setImage(imageUrl);
+                gift.setImageStatus(Gift.ImageStatus.READY);
+                gift.setImageExternal(!imageService.acquireImage(imageUrl));
             }
-            gift.setImage(imgUrl);
 
             gift.setCreatedAt(LocalDateTime.now());
             gift.setUpdatedAt(LocalDateTime.now());
 
-            Gift savedGift = giftRepository.save(gift);
+            Gift savedGift;
+            try {
+                savedGift = giftRepository.save(gift);
+            } catch (Exception e) {
+                if (stagedImage != null) Files.deleteIfExists(stagedImage);
+                throw e;
+            }
+            if (stagedImage != null) {
+                giftImageUploader.submit(savedGift.getId(), eventId, stagedImage);
+            }
+            // New gift changes the event gift list and the cached guest view
+            eventVersionService.changed(eventId);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(Map.of("message", "🎁 Gift added successfully!", "gift", savedGift));
         } catch (Exception e) {
@@ -104,15 +164,21 @@ public class GiftController {
         }
     }
 
-    // Get gifts by event (for event pages)
+    // Get gifts by event (for event pages); tagged with the event's version so reloads can get a 304
     @GetMapping("/event/{eventId}")
-    public ResponseEntity<?> getGiftsByEvent(@PathVariable Long eventId) {
+    public ResponseEntity<?> getGiftsByEvent(@PathVariable Long eventId, WebRequest webRequest) {
         try {
+            // Version first: a change racing with the read can only leave the tag behind the body
+            Optional<Long> version = eventVersionService.current(eventId);
+            String etag = version.map(v -> EventVersionService.etag("gifts", eventId, v)).orElse(null);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return notModified(etag);
+            }
             List<Gift> gifts = giftRepository.findByEventId(eventId);
             List<GiftDTO> dtos = gifts.stream()
-                .map(this::mapGiftToDTO)
+                .map(GiftController::mapGiftToDTO)
                 .toList();
-            return ResponseEntity.ok(dtos);
+            return etag != null ? taggedOk(etag, dtos) : ResponseEntity.ok(dtos);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error fetching gifts"));
@@ -121,7 +187,17 @@ public class GiftController {
 
     
     @GetMapping("/event/{eventId}/user/{userId}")
-    public ResponseEntity<?> getGiftsForUser(@PathVariable Long eventId, @PathVariable Long userId) {
+    public ResponseEntity<?> getGiftsForUser(@PathVariable Long eventId, @PathVariable Long userId,
+                                             WebRequest webRequest) {
+        Optional<Long> version = eventVersionService.current(eventId);
+        if (version.isEmpty())
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Event not found"));
+        String etag = EventVersionService.etag("gifts", eventId, version.get());
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
         Optional<Event> eventOpt = eventRepository.findById(eventId);
         if (eventOpt.isEmpty()) 
             return ResponseEntity
@@ -130,17 +206,64 @@ public class GiftController {
         Event event = eventOpt.get();
         if (event.getCreator() != null && event.getCreator().getId().equals(userId)) {
             // Creator sees nothing!
-            return ResponseEntity.ok(List.of());
+            return taggedOk(etag, List.of());
         }
         List<Gift> gifts = giftRepository.findByEventId(eventId);
         List<GiftDTO> dtos = gifts.stream()
-            .map(this::mapGiftToDTO)
+            .map(GiftController::mapGiftToDTO)
             .toList();
-        return ResponseEntity.ok(dtos);
+        return taggedOk(etag, dtos);
+    }
+
+    private static ResponseEntity<?> taggedOk(String etag, Object body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body);
+    }
+
+    private static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    /**
+     * Bulk import gifts for an event from a JSON array or CSV (header row naming the columns).
+     * Nothing is saved unless every row is valid; errors are reported per row.
+     */
+    @PostMapping(value = "/event/{eventId}/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<?> importGifts(
+            @PathVariable Long eventId,
+            @RequestParam("plannedBy") Long plannedById,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestBody String body
+    ) {
+        try {
+            if (!eventRepository.existsById(eventId)) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Event not found"));
+            }
+            if (!userRepository.existsById(plannedById)) {
+                return ResponseEntity.badRequest().body(Map.of("message", "User not found"));
+            }
+
+            GiftImportService.ImportResult result = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)
+                    ? giftImportService.importJson(eventId, plannedById, body)
+                    : giftImportService.importCsv(eventId, plannedById, body);
+            if (!result.ok()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "message", "Import rejected, no gifts were saved",
+                        "errors", result.errors()));
+            }
+
+            eventVersionService.changed(eventId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+                    "message", "🎁 " + result.imported() + " gifts imported!",
+                    "imported", result.imported()));
+        } catch (Exception e) {
+            log.error("Error importing gifts", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error importing gifts: " + e.getMessage()));
+        }
     }
 
     /**
-     * Update Gift with Cloudinary
+     * Update Gift; a new image replaces the old one once its background upload finishes
      */
     @PutMapping(value = "/{id}", consumes = {"multipart/form-data"})
     public ResponseEntity<?> updateGift(
@@ -167,20 +290,20 @@ public class GiftController {
             if (status != null) gift.setStatus(status);
             if (description != null) gift.setDescription(description);
 
-            // Handle image update
+            // Handle image update; the old image stays visible until the new one is uploaded
+            Path stagedImage = null;
             if (image != null && !image.isEmpty()) {
-                // Delete old image from Cloudinary if exists
-                if (gift.getImage() != null) {
-                    imageService.deleteImage(gift.getImage());
-                }
-                
-                // Upload new image
-                String newImageUrl = imageService.uploadImage(image);
-                gift.setImage(newImageUrl);
+                stagedImage = imageService.stageUpload(image);
+                gift.setImageStatus(Gift.ImageStatus.PENDING);
             }
 
             gift.setUpdatedAt(LocalDateTime.now());
             Gift updatedGift = giftRepository.save(gift);
+            eventVersionService.changed(gift.getEvent() != null ? gift.getEvent().getId() : null);
+            if (stagedImage != null) {
+                Long eventId = gift.getEvent() != null ? gift.getEvent().getId() : null;
+                giftImageUploader.submit(id, eventId, stagedImage);
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Gift updated successfully!");
@@ -188,15 +311,80 @@ public class GiftController {
 
             return ResponseEntity.ok(response);
 
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // A reserve or purchase landed between our read and write
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Gift was changed by someone else, reload and try again"));
         } catch (Exception e) {
-            System.err.println("❌ Error updating gift: " + e.getMessage());
+            log.error("Error updating gift", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error updating gift: " + e.getMessage()));
         }
     }
 
     /**
-     * Delete Gift (also deletes image from Cloudinary)
+     * Reserve Gift for a guest; only one caller can claim a planned, unreserved gift
+     */
+    @PutMapping("/{id}/reserve")
+    public ResponseEntity<?> reserveGift(@PathVariable Long id, @RequestBody Map<String, Long> body) {
+        try {
+            Long userId = body.get("userId");
+            if (userId == null) {
+                return ResponseEntity.badRequest().body(Map.of("message", "userId is required"));
+            }
+            if (!userRepository.existsById(userId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "User not found"));
+            }
+
+            int updated = giftRepository.reserve(id, new User(userId), Gift.GiftStatus.PLANNED, LocalDateTime.now());
+            return afterTransition(id, updated, "Gift reserved successfully!", "Gift is no longer available to reserve");
+
+        } catch (Exception e) {
+            log.error("Error reserving gift", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error reserving gift: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Mark Gift purchased; a reserved gift can only be bought by the guest who reserved it
+     */
+    @PutMapping("/{id}/purchase")
+    public ResponseEntity<?> purchaseGift(@PathVariable Long id,
+                                          @RequestBody(required = false) Map<String, Long> body) {
+        try {
+            Long userId = body != null ? body.get("userId") : null;
+            LocalDateTime now = LocalDateTime.now();
+            int updated = userId == null
+                    ? giftRepository.transition(id, Gift.GiftStatus.PLANNED, Gift.GiftStatus.PURCHASED, now)
+                    : giftRepository.transitionAs(id, new User(userId), Gift.GiftStatus.PLANNED, Gift.GiftStatus.PURCHASED, now);
+            return afterTransition(id, updated, "Gift marked as purchased!", "Gift can no longer be purchased");
+
+        } catch (Exception e) {
+            log.error("Error purchasing gift", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error purchasing gift: " + e.getMessage()));
+        }
+    }
+
+    // The conditional update already decided the race; this only reads back the outcome
+    private ResponseEntity<?> afterTransition(Long id, int updated, String success, String conflict) {
+        Optional<Gift> gift = giftRepository.findById(id);
+        if (gift.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Gift not found"));
+        }
+        GiftDTO dto = mapGiftToDTO(gift.get());
+        if (updated == 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", conflict, "gift", dto));
+        }
+        if (gift.get().getEvent() != null) {
+            eventVersionService.changed(gift.get().getEvent().getId());
+        }
+        return ResponseEntity.ok(Map.of("message", success, "gift", dto));
+    }
+
+    /**
+     * Delete Gift (its images are queued for deletion once no other gift uses them)
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteGift(@PathVariable Long id) {
@@ -206,16 +394,16 @@ public class GiftController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Gift not found"));
             }
 
-            // Delete image from Cloudinary if exists
-            if (gift.get().getImage() != null) {
-                imageService.deleteImage(gift.get().getImage());
-            }
-
             giftRepository.deleteById(id);
+            // Drop this gift's reference only once its row is gone; the file goes once no other gift shares it
+            gift.get().getImageUrls().forEach(imageService::deleteImage);
+            if (gift.get().getEvent() != null) {
+                eventVersionService.changed(gift.get().getEvent().getId());
+            }
             return ResponseEntity.ok(Map.of("message", "Gift deleted successfully"));
 
         } catch (Exception e) {
-            System.err.println("❌ Error deleting gift: " + e.getMessage());
+            log.error("Error deleting gift", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error deleting gift"));
         }
@@ -227,7 +415,7 @@ public class GiftController {
         try {
             List<Gift> gifts = giftRepository.findAll();
             List<GiftDTO> dtos = gifts.stream()
-                .map(this::mapGiftToDTO)
+                .map(GiftController::mapGiftToDTO)
                 .toList();
             return ResponseEntity.ok(dtos);
         } catch (Exception e) {
@@ -236,6 +424,28 @@ public class GiftController {
     }
 
 
+    /**
+     * Export the gifts of the caller's events as NDJSON or CSV, optionally for one of them.
+     * Rows carry who planned and reserved each gift, so nobody else's registries are included
+     */
+    @GetMapping("/export")
+    public void exportGifts(@AuthenticationPrincipal Long userId,
+                            @RequestParam(value = "format", required = false) String format,
+                            @RequestParam(value = "eventId", required = false) Long eventId,
+                            HttpServletResponse response) throws IOException {
+        exportService.export(ExportService.Dataset.GIFTS, format, userId, eventId, response);
+    }
+
+    /**
+     * Image pipeline counters: resize throughput and peak decoded size, plus the deletion queue
+     */
+    @GetMapping("/images/stats")
+    public ResponseEntity<?> getImagePipelineStats() {
+        return ResponseEntity.ok(Map.of(
+                "processing", imageVariantProcessor.stats(),
+                "deletionQueue", imageDeletionQueue.stats()));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getGiftById(@PathVariable Long id) {
         Optional<Gift> gift = giftRepository.findById(id);
@@ -257,10 +467,12 @@ public ResponseEntity<?> removePlannedGift(@PathVariable Long giftId, @PathVaria
         return ResponseEntity.status(HttpStatus.FORBIDDEN)
                 .body(Map.of("message", "You can only remove gifts you planned"));
     }
-    if (gift.getImage() != null && gift.getImage().startsWith("http")) {
-        // if image is a URL, you may or may not wish to delete it
-    }
     giftRepository.deleteById(giftId);
+    // Uploaded images are reference counted, so this only frees storage no other gift uses
+    gift.getImageUrls().forEach(imageService::deleteImage);
+    if (gift.getEvent() != null) {
+        eventVersionService.changed(gift.getEvent().getId());
+    }
     return ResponseEntity.ok(Map.of(
         "message", "Gift removed from your plan",
         "removedGiftId", giftId
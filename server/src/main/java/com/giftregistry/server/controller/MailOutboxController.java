@@ -0,0 +1,36 @@
+package com.giftregistry.server.controller;
+
+import com.giftregistry.server.service.EmailOutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/mail")
+@CrossOrigin(origins = "http://localhost:3000")
+public class MailOutboxController {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxController.class);
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    /**
+     * Queue depth and delivery counters for the email outbox
+     */
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<?> getOutboxStats() {
+        try {
+            return ResponseEntity.ok(emailOutboxService.stats());
+        } catch (Exception e) {
+            log.error("Error fetching outbox stats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error fetching outbox stats"));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.giftregistry.server.controller;
+
+import com.giftregistry.server.service.StatementStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sql")
+@CrossOrigin(origins = "http://localhost:3000")
+public class QueryStatsController {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsController.class);
+
+    @Autowired
+    private StatementStats statementStats;
+
+    /**
+     * Count, total time and p50/p95/p99 latency per SQL statement shape
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getQueryStats() {
+        try {
+            return ResponseEntity.ok(statementStats.stats());
+        } catch (Exception e) {
+            log.error("Error fetching SQL stats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Error fetching SQL stats"));
+        }
+    }
+}
@@ -2,11 +2,15 @@ package com.giftregistry.server.controller;
 
 import com.giftregistry.server.model.RSVP;
 import com.giftregistry.server.repository.RSVPRepository;
+import com.giftregistry.server.service.RSVPCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,9 +19,14 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class RSVPController {
 
+    private static final Logger log = LoggerFactory.getLogger(RSVPController.class);
+
     @Autowired
     private RSVPRepository rsvpRepository;
 
+    @Autowired
+    private RSVPCounterService rsvpCounterService;
+
     /**
      * Submit RSVP response (from email link)
      */
@@ -34,8 +43,12 @@ public class RSVPController {
             
             try {
                 RSVP.RSVPStatus status = RSVP.RSVPStatus.valueOf(response.toUpperCase());
-                rsvp.setStatus(status);
-                rsvpRepository.save(rsvp);
+                LocalDateTime respondedAt = status == RSVP.RSVPStatus.PENDING ? rsvp.getRespondedAt() : LocalDateTime.now();
+                if (!rsvpCounterService.respond(rsvp.getEvent().getId(), rsvpId, rsvp.getStatus(), status, respondedAt)) {
+                    // Another response landed between our read and write
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(Map.of("message", "RSVP was changed by someone else, reload and try again"));
+                }
 
                 String message = status == RSVP.RSVPStatus.ACCEPTED ? 
                     "Thank you for confirming your attendance!" : 
@@ -49,7 +62,7 @@ public class RSVPController {
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Error submitting RSVP: " + e.getMessage());
+            log.error("Error submitting RSVP", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error submitting RSVP"));
         }
@@ -69,7 +82,7 @@ public class RSVPController {
                         .body(Map.of("message", "RSVP not found"));
             }
         } catch (Exception e) {
-            System.err.println("❌ Error fetching RSVP: " + e.getMessage());
+            log.error("Error fetching RSVP", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Error fetching RSVP"));
         }
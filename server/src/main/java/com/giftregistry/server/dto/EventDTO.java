@@ -1,5 +1,7 @@
 package com.giftregistry.server.dto;
 
+import com.giftregistry.server.model.Event;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +21,25 @@ public class EventDTO {
     private String creatorUsername;
     private List<Long> giftIds; // Optional, or add List<GiftDTO> if you want full gift data
 
+    public EventDTO() {}
+
+    // Used by JPQL constructor expressions so list queries never hydrate Event entities
+    public EventDTO(Long id, String name, LocalDate date, String eventKey, String description,
+                    String location, Event.EventType type, LocalDateTime createdAt, LocalDateTime updatedAt,
+                    Long creatorId, String creatorUsername) {
+        this.id = id;
+        this.name = name;
+        this.date = date;
+        this.eventKey = eventKey;
+        this.description = description;
+        this.location = location;
+        this.type = type != null ? type.name() : null;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.creatorId = creatorId;
+        this.creatorUsername = creatorUsername;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
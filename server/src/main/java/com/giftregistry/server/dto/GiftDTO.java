@@ -9,6 +9,9 @@ public class GiftDTO {
     private String recipient;
     private BigDecimal price;
     private String image;
+    private String cardImage;
+    private String thumbnailImage;
+    private String imageStatus;
     private String productUrl;
     private String description;
     private String store;
@@ -16,6 +19,7 @@ public class GiftDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Long plannedById;
+    private Long reservedById;
 
     // Getters and Setters
 
@@ -34,6 +38,15 @@ public class GiftDTO {
     public String getImage() { return image; }
     public void setImage(String image) { this.image = image; }
 
+    public String getCardImage() { return cardImage; }
+    public void setCardImage(String cardImage) { this.cardImage = cardImage; }
+
+    public String getThumbnailImage() { return thumbnailImage; }
+    public void setThumbnailImage(String thumbnailImage) { this.thumbnailImage = thumbnailImage; }
+
+    public String getImageStatus() { return imageStatus; }
+    public void setImageStatus(String imageStatus) { this.imageStatus = imageStatus; }
+
     public String getProductUrl() { return productUrl; }
     public void setProductUrl(String productUrl) { this.productUrl = productUrl; }
 
@@ -54,4 +67,7 @@ public class GiftDTO {
 
     public Long getPlannedById() { return plannedById; }
     public void setPlannedById(Long plannedById) { this.plannedById = plannedById; }
+
+    public Long getReservedById() { return reservedById; }
+    public void setReservedById(Long reservedById) { this.reservedById = reservedById; }
 }
@@ -2,9 +2,13 @@ package com.giftregistry.server.model;
 
 //import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,6 +16,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "events")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "events")
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -54,6 +60,12 @@ public class Event {
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // Bumped in SQL whenever the event or its gift list changes; never written by entity saves
+    @JsonIgnore
+    @Column(name = "content_version", nullable = false, updatable = false,
+            columnDefinition = "bigint not null default 0")
+    private long contentVersion;
     
     // Enum for Event Type
     public enum EventType {
@@ -116,6 +128,9 @@ public class Event {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public long getContentVersion() { return contentVersion; }
+    public void setContentVersion(long contentVersion) { this.contentVersion = contentVersion; }
+
     public LocalDate getEventDate() { return date; }
     public void setEventDate(LocalDate date) { this.date = date; }
 
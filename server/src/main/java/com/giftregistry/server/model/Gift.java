@@ -6,6 +6,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "gifts")
@@ -26,6 +28,23 @@ public class Gift {
     @Column(columnDefinition = "TEXT")
     private String image;
 
+    // Downscaled copies of an uploaded image; null for images given by URL
+    @Column(name = "card_image", columnDefinition = "TEXT")
+    private String cardImage;
+
+    @Column(name = "thumbnail_image", columnDefinition = "TEXT")
+    private String thumbnailImage;
+
+    // Uploads finish in the background, so the image URL may arrive after the gift is saved
+    public enum ImageStatus { NONE, PENDING, READY, FAILED }
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_status")
+    private ImageStatus imageStatus = ImageStatus.NONE;
+
+    // True when the image holds no stored_images reference, so it must never be released
+    @Column(name = "image_external", nullable = false)
+    private boolean imageExternal;
+
     @Column(columnDefinition = "TEXT")
     private String productUrl;
 
@@ -49,6 +68,17 @@ public class Gift {
     @JoinColumn(name = "planned_by_id")
     @JsonIgnore
     private User plannedBy;
+
+    // Guest who claimed the gift; set only through the conditional reserve update
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reserved_by_id")
+    @JsonIgnore
+    private User reservedBy;
+
+    // Primitive so Spring Data still decides isNew by id; existing rows start at 0
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private long version;
     
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -91,6 +121,29 @@ public class Gift {
     public String getImage() { return image; }
     public void setImage(String image) { this.image = image; }
     
+    public String getCardImage() { return cardImage; }
+    public void setCardImage(String cardImage) { this.cardImage = cardImage; }
+
+    public String getThumbnailImage() { return thumbnailImage; }
+    public void setThumbnailImage(String thumbnailImage) { this.thumbnailImage = thumbnailImage; }
+
+    // Every stored URL this gift holds a reference on, for releasing them together
+    @JsonIgnore
+    public List<String> getImageUrls() {
+        List<String> urls = new ArrayList<>(3);
+        if (imageExternal) return urls;
+        if (image != null) urls.add(image);
+        if (cardImage != null) urls.add(cardImage);
+        if (thumbnailImage != null) urls.add(thumbnailImage);
+        return urls;
+    }
+
+    public ImageStatus getImageStatus() { return imageStatus; }
+    public void setImageStatus(ImageStatus imageStatus) { this.imageStatus = imageStatus; }
+
+    public boolean isImageExternal() { return imageExternal; }
+    public void setImageExternal(boolean imageExternal) { this.imageExternal = imageExternal; }
+    
     public GiftStatus getStatus() { return status; }
     public void setStatus(GiftStatus status) { this.status = status; }
     
@@ -114,4 +167,10 @@ public class Gift {
 
     public User getPlannedBy() { return plannedBy; }
     public void setPlannedBy(User plannedBy) { this.plannedBy = plannedBy; }
+
+    public User getReservedBy() { return reservedBy; }
+    public void setReservedBy(User reservedBy) { this.reservedBy = reservedBy; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 }
\ No newline at end of file
@@ -8,8 +8,14 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 @Entity
 @Table(name = "rsvps")
 public class RSVP {
+    // V2__rsvp_id_generator.sql leaves this much headroom above legacy ids; change both together
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled table-backed ids let Hibernate batch RSVP inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "rsvp_id_gen")
+    @TableGenerator(name = "rsvp_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "rsvps", allocationSize = RSVP.ID_ALLOCATION_SIZE)
     private Long id;
     
     @Column(nullable = false)
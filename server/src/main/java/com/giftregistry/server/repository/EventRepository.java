@@ -1,22 +1,106 @@
 package com.giftregistry.server.repository;
 
+import com.giftregistry.server.dto.EventDTO;
 import com.giftregistry.server.model.User;
 import com.giftregistry.server.model.Event;
 import com.giftregistry.server.model.Event.EventType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
-    List<Event> findByType(EventType type);
-    List<Event> findByDateAfter(LocalDate today);
+    // EventDTO columns with the creator's id and username joined in; results are plain objects, never managed entities
+    String EVENT_DTO_SELECT = "SELECT new com.giftregistry.server.dto.EventDTO(e.id, e.name, e.date, e.eventKey, " +
+            "e.description, e.location, e.type, e.createdAt, e.updatedAt, c.id, c.username) " +
+            "FROM Event e LEFT JOIN e.creator c ";
+
+    String EVENT_QUERY_CACHE_REGION = "event-queries";
+
+    // List queries join the creator in the same select instead of one EAGER load per event
+    @Override
+    @EntityGraph(attributePaths = "creator")
+    List<Event> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "creator")
+    List<Event> findAllById(Iterable<Long> ids);
+
     boolean existsByNameAndCreator(String name, User creatorUser);
-    List<Event> findByCreatorId(Long creatorId);
-    List<Event> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String query, String query2);
+
+    // List endpoints read DTOs straight from the query: no Event or User (password hash included) is loaded
+    @Query(EVENT_DTO_SELECT)
+    List<EventDTO> findAllDtos();
+
+    // Category pages are read far more often than events change; any event insert or update
+    // through Hibernate invalidates the cached results
+    @Query(EVENT_DTO_SELECT + "WHERE e.type = :type")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EVENT_QUERY_CACHE_REGION)
+    })
+    List<EventDTO> findDtosByType(@Param("type") EventType type);
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.date > :date")
+    List<EventDTO> findDtosByDateAfter(@Param("date") LocalDate date);
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.creator.id = :creatorId")
+    List<EventDTO> findDtosByCreatorId(@Param("creatorId") Long creatorId);
+
+    @Query(EVENT_DTO_SELECT + "WHERE e.id IN :ids")
+    List<EventDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Caches the key to id mapping; the Event itself then comes from the events region
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EVENT_QUERY_CACHE_REGION)
+    })
     Optional<Event> findByEventKey(String eventKey);
-}
\ No newline at end of file
+
+    // Rows of [id, name, description] used to build EventSearchIndex at startup
+    @Query("SELECT e.id, e.name, e.description FROM Event e")
+    List<Object[]> findSearchableFields();
+
+    // Keyset pages over (created_at, id), newest first. Selects DTOs directly so no Event is materialized.
+    // Rows without a created_at come last, by id; NULLS LAST is MySQL's own order for DESC, so it costs nothing.
+    @Query(EVENT_DTO_SELECT +
+           "ORDER BY e.createdAt DESC NULLS LAST, e.id DESC")
+    List<EventDTO> findPublicPage(Pageable pageable);
+
+    @Query(EVENT_DTO_SELECT +
+           "WHERE e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id) OR e.createdAt IS NULL " +
+           "ORDER BY e.createdAt DESC NULLS LAST, e.id DESC")
+    List<EventDTO> findPublicPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    // Continues past a cursor on a row without a created_at, where only undated rows remain
+    @Query(EVENT_DTO_SELECT +
+           "WHERE e.createdAt IS NULL AND e.id < :id " +
+           "ORDER BY e.id DESC")
+    List<EventDTO> findUndatedPublicPageAfter(@Param("id") Long id, Pageable pageable);
+
+    // Ownership check without loading the event or its creator
+    @Query("SELECT e.creator.id FROM Event e WHERE e.id = :id")
+    Optional<Long> findCreatorId(@Param("id") Long id);
+
+    // Version stamps for conditional GETs: a primary-key (or unique-key) read that never touches gift rows
+    @Query("SELECT e.contentVersion FROM Event e WHERE e.id = :id")
+    Optional<Long> findContentVersion(@Param("id") Long id);
+
+    @Query("SELECT e.contentVersion FROM Event e WHERE e.eventKey = :eventKey")
+    Optional<Long> findContentVersionByEventKey(@Param("eventKey") String eventKey);
+}
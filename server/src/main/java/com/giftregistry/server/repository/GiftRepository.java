@@ -2,9 +2,17 @@ package com.giftregistry.server.repository;
 
 import com.giftregistry.server.model.Event;
 import com.giftregistry.server.model.Gift;
+import com.giftregistry.server.model.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +22,59 @@ public interface GiftRepository extends JpaRepository<Gift, Long> {
     List<Gift> findByStatus(Gift.GiftStatus status);
     List<Gift> findByEventIdAndPlannedById(Long eventId, Long userId);
     List<Gift> findByEventIdAndPlannedByIdAndStatus(Long eventId, Long userId, Gift.GiftStatus status);
-}
\ No newline at end of file
+
+    // One grouped lookup of gift ids for a whole page of events; each row is [eventId, giftId]
+    @Query("SELECT g.event.id, g.id FROM Gift g WHERE g.event.id IN :eventIds ORDER BY g.id")
+    List<Object[]> findGiftIdsByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    // Image URLs of every gift in an event, collected before the event's cascade delete; rows are [image, card, thumbnail]
+    @Query("SELECT g.image, g.cardImage, g.thumbnailImage FROM Gift g " +
+           "WHERE g.event.id = :eventId AND g.image IS NOT NULL AND g.imageExternal = false")
+    List<Object[]> findImageUrlsByEventId(@Param("eventId") Long eventId);
+
+    // Current [image, card, thumbnail, imageExternal] of one gift, read just before swapping in a new upload
+    @Query("SELECT g.image, g.cardImage, g.thumbnailImage, g.imageExternal FROM Gift g WHERE g.id = :id")
+    List<Object[]> findImageUrlsById(@Param("id") Long id);
+
+    // Touches only the image columns so a background upload never overwrites concurrent edits.
+    // Applies only while the image is still the one the caller read, so of two overlapping
+    // uploads each replaces (and releases) a different image
+    @Modifying
+    @Transactional
+    @Query("UPDATE Gift g SET g.image = :image, g.cardImage = :cardImage, g.thumbnailImage = :thumbnailImage, " +
+           "g.imageStatus = :imageStatus, g.imageExternal = false, g.version = g.version + 1 " +
+           "WHERE g.id = :id AND (g.image = :expectedImage OR (g.image IS NULL AND :expectedImage IS NULL))")
+    int replaceImage(@Param("id") Long id, @Param("expectedImage") String expectedImage, @Param("image") String image,
+                     @Param("cardImage") String cardImage, @Param("thumbnailImage") String thumbnailImage,
+                     @Param("imageStatus") Gift.ImageStatus imageStatus);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Gift g SET g.imageStatus = :imageStatus, g.version = g.version + 1 WHERE g.id = :id")
+    int updateImageStatus(@Param("id") Long id, @Param("imageStatus") Gift.ImageStatus imageStatus);
+
+    // Reserve and purchase are single conditional updates: the status check and the write happen in
+    // one statement, so of several concurrent callers exactly one sees a row count of 1
+    @Modifying
+    @Transactional
+    @Query("UPDATE Gift g SET g.reservedBy = :user, g.updatedAt = :now, g.version = g.version + 1 " +
+           "WHERE g.id = :id AND g.status = :expected AND g.reservedBy IS NULL")
+    int reserve(@Param("id") Long id, @Param("user") User user,
+                @Param("expected") Gift.GiftStatus expected, @Param("now") LocalDateTime now);
+
+    // For callers without a user, so a gift someone has reserved is never theirs to move
+    @Modifying
+    @Transactional
+    @Query("UPDATE Gift g SET g.status = :next, g.updatedAt = :now, g.version = g.version + 1 " +
+           "WHERE g.id = :id AND g.status = :expected AND g.reservedBy IS NULL")
+    int transition(@Param("id") Long id, @Param("expected") Gift.GiftStatus expected,
+                   @Param("next") Gift.GiftStatus next, @Param("now") LocalDateTime now);
+
+    // As transition, but a gift reserved by someone else is left alone
+    @Modifying
+    @Transactional
+    @Query("UPDATE Gift g SET g.status = :next, g.updatedAt = :now, g.version = g.version + 1 " +
+           "WHERE g.id = :id AND g.status = :expected AND (g.reservedBy IS NULL OR g.reservedBy = :user)")
+    int transitionAs(@Param("id") Long id, @Param("user") User user, @Param("expected") Gift.GiftStatus expected,
+                     @Param("next") Gift.GiftStatus next, @Param("now") LocalDateTime now);
+}
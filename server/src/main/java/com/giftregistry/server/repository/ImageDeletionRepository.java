@@ -0,0 +1,36 @@
+package com.giftregistry.server.repository;
+
+import com.giftregistry.server.model.ImageDeletion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ImageDeletionRepository extends JpaRepository<ImageDeletion, Long> {
+    long countByStatus(ImageDeletion.DeletionStatus status);
+
+    // Rows stay locked until the drain has called the store, so a cancel for the same content waits
+    // for the file to go before re-storing it; -2 is SKIP_LOCKED, as for the email outbox
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT d FROM ImageDeletion d WHERE d.status = :status AND d.nextAttemptAt <= :now ORDER BY d.id")
+    List<ImageDeletion> lockDue(@Param("status") ImageDeletion.DeletionStatus status,
+                                @Param("now") LocalDateTime now,
+                                Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ImageDeletion d WHERE d.contentHash = :contentHash")
+    int cancel(@Param("contentHash") String contentHash);
+}
@@ -0,0 +1,29 @@
+package com.giftregistry.server.repository;
+
+import com.giftregistry.server.model.OutboxEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+    long countByStatus(OutboxEmail.OutboxStatus status);
+
+    // SELECT ... FOR UPDATE SKIP LOCKED: concurrent dispatchers each lock a disjoint set of due rows
+    // instead of waiting on, or double-sending, each other's; a lock timeout of -2 is Hibernate's SKIP_LOCKED
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxEmail m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<OutboxEmail> lockDue(@Param("status") OutboxEmail.OutboxStatus status,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+}
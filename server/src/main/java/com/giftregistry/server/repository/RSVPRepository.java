@@ -3,12 +3,31 @@ package com.giftregistry.server.repository;
 import com.giftregistry.server.model.Event;
 import com.giftregistry.server.model.RSVP;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface RSVPRepository extends JpaRepository<RSVP, Long> {
     List<RSVP> findByEvent(Event event);
+    List<RSVP> findByEventId(Long eventId);
     long countByEventAndStatus(Event event, RSVP.RSVPStatus status);
-}
\ No newline at end of file
+
+    // Rows of [status, count] for every status present on the event
+    @Query("SELECT r.status, COUNT(r) FROM RSVP r WHERE r.event.id = :eventId GROUP BY r.status")
+    List<Object[]> countByStatusForEvent(@Param("eventId") Long eventId);
+
+    // Applies only if the status is still the one the caller read, so of two concurrent
+    // responses to one RSVP exactly one sees a row count of 1
+    @Modifying
+    @Transactional
+    @Query("UPDATE RSVP r SET r.status = :next, r.respondedAt = :respondedAt " +
+           "WHERE r.id = :id AND r.status = :expected")
+    int updateStatus(@Param("id") Long id, @Param("expected") RSVP.RSVPStatus expected,
+                     @Param("next") RSVP.RSVPStatus next, @Param("respondedAt") LocalDateTime respondedAt);
+}
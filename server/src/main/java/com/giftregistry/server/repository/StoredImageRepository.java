@@ -0,0 +1,40 @@
+package com.giftregistry.server.repository;
+
+import com.giftregistry.server.model.StoredImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredImageRepository extends JpaRepository<StoredImage, Long> {
+    Optional<StoredImage> findByContentHash(String contentHash);
+    Optional<StoredImage> findByPublicId(String publicId);
+
+    @Query("SELECT s.publicId FROM StoredImage s WHERE s.publicId IN :publicIds")
+    List<String> findExistingPublicIds(@Param("publicIds") Collection<String> publicIds);
+
+    // Counts are adjusted in SQL so concurrent uploads and deletes never lose an update;
+    // a result of 0 means the row is gone (or already at zero) and the caller must fall back
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredImage s SET s.refCount = s.refCount + 1 WHERE s.id = :id AND s.refCount > 0")
+    int acquire(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredImage s SET s.refCount = s.refCount - 1 WHERE s.id = :id AND s.refCount > 0")
+    int release(@Param("id") Long id);
+
+    // Only the caller whose delete matches a zero count gets to free the storage
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredImage s WHERE s.id = :id AND s.refCount = 0")
+    int deleteIfUnreferenced(@Param("id") Long id);
+}
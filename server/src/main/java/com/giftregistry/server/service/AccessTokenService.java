@@ -0,0 +1,115 @@
+package com.giftregistry.server.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and checks stateless access tokens of the form {@code v1.<userId>.<expiresEpochSeconds>.<signature>},
+ * signed with HMAC-SHA256. Verifying one is pure CPU work, so the request filter never touches the database.
+ */
+@Service
+public class AccessTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenService.class);
+
+    private static final String VERSION = "v1";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    public record AccessToken(String value, Instant expiresAt) {}
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    // Mac instances are not thread-safe; one per thread avoids a provider lookup per request
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    @Autowired
+    public AccessTokenService(@Value("${app.auth.token-secret:}") String secret,
+                              @Value("${app.auth.token-ttl-minutes:720}") long ttlMinutes) {
+        this(secret, Duration.ofMinutes(ttlMinutes), Clock.systemUTC());
+    }
+
+    AccessTokenService(String secret, Duration ttl, Clock clock) {
+        byte[] secretBytes = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < MIN_SECRET_BYTES) {
+            log.warn("app.auth.token-secret is unset or shorter than {} bytes; using a random key, "
+                    + "so tokens will not survive a restart", MIN_SECRET_BYTES);
+            secretBytes = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secretBytes);
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public AccessToken issue(Long userId) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = VERSION + "." + userId + "." + expiresAt.getEpochSecond();
+        return new AccessToken(payload + "." + sign(payload), expiresAt);
+    }
+
+    /**
+     * Returns the user id of a well-formed, correctly signed and unexpired token, otherwise empty.
+     */
+    public Optional<Long> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int lastDot = token.lastIndexOf('.');
+        if (lastDot < 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, lastDot);
+        String[] parts = payload.split("\\.");
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            return Optional.empty();
+        }
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(lastDot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return Optional.empty();
+        }
+        try {
+            long userId = Long.parseLong(parts[1]);
+            long expiresAt = Long.parseLong(parts[2]);
+            if (clock.instant().getEpochSecond() >= expiresAt) {
+                return Optional.empty();
+            }
+            return Optional.of(userId);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String sign(String payload) {
+        byte[] signature = macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+}
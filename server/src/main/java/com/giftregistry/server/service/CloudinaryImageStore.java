@@ -0,0 +1,113 @@
+package com.giftregistry.server.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Service
+@ConditionalOnProperty(name = "app.images.store", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageStore implements ImageStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CloudinaryImageStore.class);
+
+    private static final String FOLDER = "gift-registry";
+    private static final String HOST = "res.cloudinary.com";
+    private static final Pattern VERSION = Pattern.compile("^v\\d+/");
+
+    @Autowired
+    private Cloudinary cloudinary;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Cloudinary streams a File body from disk instead of buffering it as a byte[]
+    @Override
+    public StoredFile store(Path file, String contentHash) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        Map<?, ?> uploadResult;
+        try {
+            uploadResult = cloudinary.uploader().upload(file.toFile(),
+                ObjectUtils.asMap(
+                    "folder", FOLDER,
+                    // The content hash is the name, so different files never overwrite each other
+                    "public_id", contentHash,
+                    "overwrite", false
+                ));
+            outcome = "success";
+        } finally {
+            sample.stop(meterRegistry.timer("cloudinary.requests", "operation", "upload", "outcome", outcome));
+        }
+
+        return new StoredFile(FOLDER + "/" + contentHash, (String) uploadResult.get("secure_url")); // HTTPS URL
+    }
+
+    // Only delivery URLs of this account's folder map to a key; any other host or path is not ours to delete
+    @Override
+    public String keyOf(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+        try {
+            // Cloudinary URL format: https://res.cloudinary.com/cloudname/image/upload/v1234567/folder/filename.jpg
+            URI uri = URI.create(imageUrl);
+            String prefix = "/" + cloudinary.config.cloudName + "/image/upload/";
+            if (!HOST.equalsIgnoreCase(uri.getHost()) || uri.getPath() == null || !uri.getPath().startsWith(prefix)) {
+                return null;
+            }
+            String path = VERSION.matcher(uri.getPath().substring(prefix.length())).replaceFirst("");
+            // Remove file extension
+            int lastDot = path.lastIndexOf('.');
+            if (lastDot != -1) {
+                path = path.substring(0, lastDot);
+            }
+            return path.startsWith(FOLDER + "/") ? path : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Could not extract public id from URL {}", imageUrl);
+        }
+        return null;
+    }
+
+    // One Admin API delete_resources call for the whole batch (it accepts up to 100 public ids)
+    @Override
+    public Set<String> delete(Collection<String> keys) throws IOException {
+        Map<?, ?> response;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            response = cloudinary.api().deleteResources(List.copyOf(keys), ObjectUtils.emptyMap());
+            outcome = "success";
+        } catch (Exception e) {
+            throw new IOException("delete_resources failed: " + e.getMessage(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("cloudinary.requests", "operation", "delete_resources", "outcome", outcome));
+        }
+        Set<String> gone = new HashSet<>();
+        if (response.get("deleted") instanceof Map<?, ?> deleted) {
+            for (String key : keys) {
+                Object result = deleted.get(key);
+                // "not_found" means there is nothing left to free, which is as good as deleted
+                if ("deleted".equals(result) || "not_found".equals(result)) {
+                    gone.add(key);
+                }
+            }
+        }
+        return gone;
+    }
+}
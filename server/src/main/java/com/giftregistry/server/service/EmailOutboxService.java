@@ -0,0 +1,220 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.OutboxEmail;
+import com.giftregistry.server.repository.OutboxEmailRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable outbox for outgoing mail. Callers persist a rendered message; a scheduled
+ * dispatcher drains due rows in batches, sending each batch over a single SMTP connection.
+ * A drain first claims its rows by leasing them (nextAttemptAt moved past the drain) under
+ * SKIP LOCKED, so other instances leave them alone, and saves each window's outcome as soon as
+ * it is sent, so a crash can re-send at most the window in flight once the lease runs out.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    @Autowired
+    private OutboxEmailRepository outboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.mail.username:default@example.com}")
+    private String fromEmail;
+
+    @Value("${app.mail.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.rate-per-second:10}")
+    private int ratePerSecond;
+
+    @Value("${app.mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-seconds:30}")
+    private long backoffSeconds;
+
+    // Has to outlast a full drain (batch-size / rate-per-second seconds)
+    @Value("${app.mail.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private final AtomicLong sentTotal = new AtomicLong();
+    private final AtomicLong retriedTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private volatile long lastDrainMillis;
+
+    public OutboxEmail enqueue(String toEmail, String subject, String htmlBody) {
+        return outboxRepository.save(new OutboxEmail(toEmail, subject, htmlBody));
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:5000}")
+    public void drain() {
+        long start = System.currentTimeMillis();
+        List<OutboxEmail> due = claimDue();
+        if (due.isEmpty()) {
+            return;
+        }
+
+        int window = ratePerSecond > 0 ? ratePerSecond : due.size();
+        for (int from = 0; from < due.size(); from += window) {
+            long windowStart = System.currentTimeMillis();
+            List<OutboxEmail> batch = due.subList(from, Math.min(from + window, due.size()));
+            sendWindow(batch);
+            outboxRepository.saveAll(batch);
+
+            // Stay under the configured rate before opening the next window
+            long elapsed = System.currentTimeMillis() - windowStart;
+            if (ratePerSecond > 0 && from + window < due.size() && elapsed < 1000) {
+                try {
+                    Thread.sleep(1000 - elapsed);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        lastDrainMillis = System.currentTimeMillis() - start;
+    }
+
+    // Rows this drain does not get to (crash, interrupt) come due again when the lease expires
+    private List<OutboxEmail> claimDue() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEmail> due = outboxRepository.lockDue(
+                    OutboxEmail.OutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+            LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+            due.forEach(email -> email.setNextAttemptAt(leaseUntil));
+            return due;
+        });
+    }
+
+    private void sendWindow(List<OutboxEmail> window) {
+        Map<MimeMessage, OutboxEmail> byMessage = new IdentityHashMap<>();
+        for (OutboxEmail email : window) {
+            try {
+                byMessage.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                // A message that cannot be built will never send, so skip the retries
+                markFailed(email, e.getMessage());
+            }
+        }
+        if (byMessage.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = new HashMap<>();
+        // One smtp.send timing per connection; outcome is "error" if any message in the window failed
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // JavaMailSenderImpl connects once and sends the whole array over that Transport
+            mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                byMessage.keySet().forEach(message -> failures.put(message, e));
+            }
+        } catch (MailException e) {
+            byMessage.keySet().forEach(message -> failures.put(message, e));
+        }
+        sample.stop(meterRegistry.timer("smtp.send", "outcome", failures.isEmpty() ? "success" : "error"));
+
+        for (Map.Entry<MimeMessage, OutboxEmail> entry : byMessage.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                markSent(entry.getValue());
+            } else {
+                scheduleRetry(entry.getValue(), failure.getMessage());
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), true);
+        return message;
+    }
+
+    private void markSent(OutboxEmail email) {
+        email.setStatus(OutboxEmail.OutboxStatus.SENT);
+        email.setAttempts(email.getAttempts() + 1);
+        email.setSentAt(LocalDateTime.now());
+        email.setLastError(null);
+        sentTotal.incrementAndGet();
+    }
+
+    private void scheduleRetry(OutboxEmail email, String error) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(error));
+        if (attempts >= maxAttempts) {
+            email.setStatus(OutboxEmail.OutboxStatus.FAILED);
+            failedTotal.incrementAndGet();
+            log.error("Giving up on email {} to {}: {}", email.getId(), email.getRecipient(), error);
+            return;
+        }
+        long delay = Math.min(backoffSeconds << (attempts - 1), MAX_BACKOFF_SECONDS);
+        email.setNextAttemptAt(LocalDateTime.now().plusSeconds(delay));
+        retriedTotal.incrementAndGet();
+    }
+
+    private void markFailed(OutboxEmail email, String error) {
+        email.setAttempts(email.getAttempts() + 1);
+        email.setStatus(OutboxEmail.OutboxStatus.FAILED);
+        email.setLastError(truncate(error));
+        failedTotal.incrementAndGet();
+    }
+
+    private static String truncate(String error) {
+        if (error == null) return null;
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", outboxRepository.countByStatus(OutboxEmail.OutboxStatus.PENDING));
+        stats.put("failed", outboxRepository.countByStatus(OutboxEmail.OutboxStatus.FAILED));
+        stats.put("sentTotal", sentTotal.get());
+        stats.put("retriedTotal", retriedTotal.get());
+        stats.put("failedTotal", failedTotal.get());
+        stats.put("lastDrainMillis", lastDrainMillis);
+        return stats;
+    }
+}
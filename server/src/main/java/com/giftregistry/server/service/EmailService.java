@@ -4,5 +4,6 @@ import com.giftregistry.server.model.Event;
 
 public interface EmailService {
     void sendEventCreationEmail(String toEmail, Event event);
+    // Throws if the invitation could not be rendered or queued
     void sendRSVPInvitation(String toEmail, Event event, Long rsvpId);
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.dto.EventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded, TTL-based cache of the guest-facing EventDTO keyed by eventKey.
+ * Least recently used entries are evicted once maxSize is reached.
+ * A reader takes a fill ticket before it reads the event, and put drops the entry if the event was
+ * invalidated after that ticket, so a fill that raced an update can never cache the old DTO.
+ */
+@Service
+public class EventKeyCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong staleFills = new AtomicLong();
+
+    private final Map<Long, String> keysByEventId = new HashMap<>();
+    private final LinkedHashMap<String, CachedEvent> entries;
+
+    // Bumped by every invalidate; invalidatedAt holds each event's last bump, oldest dropped past maxSize
+    private long generation;
+    private long forgottenThrough;
+    private final LinkedHashMap<Long, Long> invalidatedAt;
+
+    // version is the event's content version when the DTO was built, reused as its ETag
+    public record Entry(EventDTO dto, long version) {}
+
+    private record CachedEvent(Entry entry, long expiresAt) {}
+
+    public EventKeyCache(@Value("${app.event-key-cache.max-size:1000}") int maxSize,
+                         @Value("${app.event-key-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEvent> eldest) {
+                if (size() > EventKeyCache.this.maxSize) {
+                    keysByEventId.remove(eldest.getValue().entry().dto().getId());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.invalidatedAt = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                if (size() > EventKeyCache.this.maxSize) {
+                    // Without the stamp, any fill that started before it has to be treated as stale
+                    forgottenThrough = eldest.getValue();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized Entry get(String eventKey) {
+        CachedEvent cached = entries.get(eventKey);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (cached.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(eventKey);
+            keysByEventId.remove(cached.entry().dto().getId());
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached.entry();
+    }
+
+    /**
+     * Take before reading the event's version and contents; pass the ticket to put.
+     */
+    public synchronized long fillTicket() {
+        return generation;
+    }
+
+    public synchronized void put(String eventKey, EventDTO dto, long version, long ticket) {
+        Long stamp = invalidatedAt.get(dto.getId());
+        if ((stamp != null && stamp > ticket) || forgottenThrough > ticket) {
+            staleFills.incrementAndGet();
+            return;
+        }
+        CachedEvent existing = entries.get(eventKey);
+        if (existing != null && existing.entry().version() > version) {
+            return;
+        }
+        entries.put(eventKey, new CachedEvent(new Entry(dto, version), System.currentTimeMillis() + ttlMillis));
+        keysByEventId.put(dto.getId(), eventKey);
+    }
+
+    public synchronized void invalidate(Long eventId) {
+        generation++;
+        // Re-inserted so the map stays ordered by stamp and the eldest is always the oldest
+        invalidatedAt.remove(eventId);
+        invalidatedAt.put(eventId, generation);
+        String eventKey = keysByEventId.remove(eventId);
+        if (eventKey != null) {
+            entries.remove(eventKey);
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("staleFills", staleFills.get());
+        return stats;
+    }
+}
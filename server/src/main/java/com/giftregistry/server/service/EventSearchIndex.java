@@ -0,0 +1,248 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory n-gram index over event name and description.
+ * Loaded once at startup and kept current by EventController on create, update and delete,
+ * so searches never run LIKE '%q%' scans against the database.
+ */
+@Service
+public class EventSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    private static final int GRAM_SIZE = 3;
+    // Shorter terms would match and rank nearly every document, so they are ignored
+    static final int MIN_TERM_LENGTH = 2;
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int WORD_PREFIX_BONUS = 2;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // gram (MIN_TERM_LENGTH to GRAM_SIZE chars) -> ids of events whose name or description contains it
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, IndexedEvent> documents = new HashMap<>();
+
+    private record IndexedEvent(String name, String description, Set<String> grams) {}
+
+    private record ScoredEvent(Long id, int score) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = eventRepository.findSearchableFields();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            for (Object[] row : rows) {
+                addLocked((Long) row[0], (String) row[1], (String) row[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index built with {} events", rows.size());
+    }
+
+    public void index(Event event) {
+        index(event.getId(), event.getName(), event.getDescription());
+    }
+
+    public void index(Long id, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            addLocked(id, name, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of event ids whose name or description contains every word of the query
+     * (words shorter than MIN_TERM_LENGTH are skipped), best match first.
+     */
+    public List<Long> search(String query, int page, int size) {
+        List<String> terms = tokenize(normalize(query)).stream()
+                .filter(term -> term.length() >= MIN_TERM_LENGTH)
+                .toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        List<ScoredEvent> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(terms)) {
+                int score = score(documents.get(id), terms);
+                if (score > 0) {
+                    matches.add(new ScoredEvent(id, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt(ScoredEvent::score).reversed()
+                .thenComparing(ScoredEvent::id, Comparator.reverseOrder()));
+
+        int from = Math.min(page * size, matches.size());
+        int to = Math.min(from + size, matches.size());
+        return matches.subList(from, to).stream().map(ScoredEvent::id).toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Long id, String name, String description) {
+        String normalizedName = normalize(name);
+        String normalizedDescription = normalize(description);
+        Set<String> grams = new HashSet<>();
+        collectGrams(normalizedName, grams);
+        collectGrams(normalizedDescription, grams);
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+        }
+        documents.put(id, new IndexedEvent(normalizedName, normalizedDescription, grams));
+    }
+
+    private void removeLocked(Long id) {
+        IndexedEvent existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        for (String gram : existing.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Intersects the posting lists of every gram in the query, starting from the rarest
+    private Set<Long> candidates(List<String> terms) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String term : terms) {
+            for (String gram : queryGrams(term)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return Set.of();
+                }
+                lists.add(ids);
+            }
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    // Grams can produce false positives, so each term is confirmed against the stored text
+    private static int score(IndexedEvent doc, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int termScore = 0;
+            if (doc.name().contains(term)) {
+                termScore += NAME_WEIGHT;
+                if (startsWord(doc.name(), term)) termScore += WORD_PREFIX_BONUS;
+            }
+            if (doc.description().contains(term)) {
+                termScore += DESCRIPTION_WEIGHT;
+                if (startsWord(doc.description(), term)) termScore += WORD_PREFIX_BONUS;
+            }
+            if (termScore == 0) {
+                return 0;
+            }
+            total += termScore;
+        }
+        return total;
+    }
+
+    private static boolean startsWord(String text, String term) {
+        int from = 0;
+        int idx;
+        while ((idx = text.indexOf(term, from)) >= 0) {
+            if (idx == 0 || !Character.isLetterOrDigit(text.charAt(idx - 1))) {
+                return true;
+            }
+            from = idx + 1;
+        }
+        return false;
+    }
+
+    private static void collectGrams(String text, Set<String> grams) {
+        for (String token : tokenize(text)) {
+            for (int len = MIN_TERM_LENGTH; len <= GRAM_SIZE; len++) {
+                for (int i = 0; i + len <= token.length(); i++) {
+                    grams.add(token.substring(i, i + len));
+                }
+            }
+        }
+    }
+
+    private static List<String> queryGrams(String term) {
+        if (term.length() <= GRAM_SIZE) {
+            return List.of(term);
+        }
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM_SIZE <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,72 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.repository.EventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Per-event content version used as a strong ETag by the gift list and event DTO endpoints.
+ * Every change to an event or its gifts goes through {@link #changed}, which bumps the
+ * stored version and drops the guest view from the event key cache.
+ */
+@Service
+public class EventVersionService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventKeyCache eventKeyCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Optional<Long> current(Long eventId) {
+        return eventRepository.findContentVersion(eventId);
+    }
+
+    public Optional<Long> currentByKey(String eventKey) {
+        return eventRepository.findContentVersionByEventKey(eventKey);
+    }
+
+    @Transactional
+    public void changed(Long eventId) {
+        if (eventId == null) {
+            return;
+        }
+        // A JPQL bulk update of Event would clear the whole events cache region on every gift change.
+        // This native update names an unrelated query space so no region is cleared, and only this
+        // event's cached entry is dropped.
+        entityManager.createNativeQuery("UPDATE events SET content_version = content_version + 1 WHERE id = ?1")
+                .setParameter(1, eventId)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("")
+                .executeUpdate();
+        entityManager.getEntityManagerFactory().getCache().evict(Event.class, eventId);
+        eventKeyCache.invalidate(eventId);
+        // Until commit, readers still see the old version; invalidating again afterwards makes the
+        // cache refuse any fill that read it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eventKeyCache.invalidate(eventId);
+                }
+            });
+        }
+    }
+
+    // Strong ETag naming the representation, so different endpoints for one event never share a tag
+    public static String etag(String representation, Long eventId, long version) {
+        return "\"" + representation + "-" + eventId + "-" + version + "\"";
+    }
+}
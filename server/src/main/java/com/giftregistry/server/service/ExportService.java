@@ -0,0 +1,249 @@
+package com.giftregistry.server.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+
+/**
+ * Streams whole tables as NDJSON or CSV. Rows come off a forward-only result set that the driver
+ * streams, and are written as they arrive, so memory use does not grow with the row count.
+ */
+@Service
+public class ExportService {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+    private static final String MYSQL = "MySQL";
+    // Served by idx_events_creator_name
+    private static final String OWNED_EVENT = "event_id IN (SELECT id FROM events WHERE creator_id = ?)";
+
+    public enum Format {
+        NDJSON("application/x-ndjson"), CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) { this.contentType = contentType; }
+
+        public static Format parse(String value) {
+            try {
+                return value == null ? NDJSON : valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    // Column order in the SELECT matches the field names. Every export is limited to the owner's
+    // events; the filter column optionally narrows it to one event
+    public enum Dataset {
+        GIFTS("gifts",
+                "SELECT id, event_id, name, recipient, price, store, status, description, product_url, image, " +
+                "planned_by_id, reserved_by_id, created_at, updated_at FROM gifts",
+                OWNED_EVENT,
+                "event_id",
+                "id", "eventId", "name", "recipient", "price", "store", "status", "description", "productUrl", "image",
+                "plannedById", "reservedById", "createdAt", "updatedAt"),
+        EVENTS("events",
+                "SELECT id, name, event_date, type, location, description, creator_id, created_at, updated_at FROM events",
+                "creator_id = ?",
+                "id",
+                "id", "name", "date", "type", "location", "description", "creatorId", "createdAt", "updatedAt"),
+        RSVPS("rsvps",
+                "SELECT id, event_id, guest_email, status, responded_at, created_at FROM rsvps",
+                OWNED_EVENT,
+                "event_id",
+                "id", "eventId", "guestEmail", "status", "respondedAt", "createdAt");
+
+        private final String fileName;
+        private final String select;
+        private final String ownerCondition;
+        private final String filterColumn;
+        private final String[] fields;
+
+        Dataset(String fileName, String select, String ownerCondition, String filterColumn, String... fields) {
+            this.fileName = fileName;
+            this.select = select;
+            this.ownerCondition = ownerCondition;
+            this.filterColumn = filterColumn;
+            this.fields = fields;
+        }
+
+        String sql(boolean filtered) {
+            return select + " WHERE " + ownerCondition + (filtered ? " AND " + filterColumn + " = ?" : "") + " ORDER BY id";
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.export.fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     * Writes the export as the response body. Returns the number of rows written, or -1 when
+     * the format is unknown (a 400 has been sent). A failure after the first byte can only
+     * abort the connection, so the client sees a truncated file rather than an error status.
+     */
+    public long export(Dataset dataset, String format, Long ownerId, Long filterId, HttpServletResponse response)
+            throws IOException {
+        Format parsed = Format.parse(format);
+        if (parsed == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "format must be ndjson or csv");
+            return -1;
+        }
+        response.setContentType(parsed.contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + dataset.fileName + "."
+                + parsed.name().toLowerCase(Locale.ROOT) + "\"");
+        return write(dataset, parsed, ownerId, filterId, response.getOutputStream());
+    }
+
+    public long write(Dataset dataset, Format format, Long ownerId, Long filterId, OutputStream out) throws IOException {
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out, dataset.fields) : new NdjsonRowWriter(out, dataset.fields);
+        long[] rows = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(dataset.sql(filterId != null),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSizeFor(connection));
+                statement.setLong(1, ownerId);
+                if (filterId != null) {
+                    statement.setLong(2, filterId);
+                }
+                return statement;
+            }, (ResultSet rs) -> {
+                try {
+                    writer.row(rs);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+        return rows[0];
+    }
+
+    /**
+     * Connector/J reads a whole result set into memory unless the fetch size is Integer.MIN_VALUE,
+     * which streams rows for this statement only; every other query keeps the driver's buffered reads.
+     */
+    private int fetchSizeFor(Connection connection) throws SQLException {
+        return MYSQL.equals(connection.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    private interface RowWriter {
+        void row(ResultSet rs) throws IOException, SQLException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final String[] fields;
+
+        NdjsonRowWriter(OutputStream out, String[] fields) throws IOException {
+            this.generator = JSON.createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // One object per line, with no separator besides the newline we write
+            this.generator.setRootValueSeparator(null);
+            this.fields = fields;
+        }
+
+        @Override
+        public void row(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (int i = 0; i < fields.length; i++) {
+                Object value = normalize(rs.getObject(i + 1));
+                generator.writeFieldName(fields[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private final String[] fields;
+
+        CsvRowWriter(OutputStream out, String[] fields) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            this.fields = fields;
+            writeLine(fields);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws IOException, SQLException {
+            String[] values = new String[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                Object value = normalize(rs.getObject(i + 1));
+                values[i] = value == null ? "" : value.toString();
+            }
+            writeLine(values);
+        }
+
+        private void writeLine(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                writer.write(escapeCsv(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    // Drivers differ in what getObject returns for DATETIME; write the same ISO text Jackson uses elsewhere
+    private static Object normalize(Object value) {
+        if (value instanceof Timestamp timestamp) return timestamp.toLocalDateTime();
+        if (value instanceof java.sql.Date date) return date.toLocalDate();
+        return value;
+    }
+
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,105 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Gift;
+import com.giftregistry.server.repository.GiftRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Finishes gift image uploads on the bounded imageUploadExecutor. The gift row is saved
+ * as PENDING first; the upload then fills in the variant URLs and flips it to READY or FAILED.
+ */
+@Service
+public class GiftImageUploader {
+
+    private static final Logger log = LoggerFactory.getLogger(GiftImageUploader.class);
+
+    private static final int MAX_SWAP_ATTEMPTS = 5;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private EventVersionService eventVersionService;
+
+    @Autowired
+    @Qualifier("imageUploadExecutor")
+    private TaskExecutor imageUploadExecutor;
+
+    void upload(Long giftId, Long eventId, Path stagedFile) {
+        try {
+            ImageService.UploadedImage uploaded = imageService.uploadVariants(stagedFile);
+            List<String> unused = swapIn(giftId, uploaded);
+            unused.forEach(imageService::deleteImage);
+        } catch (Exception e) {
+            log.error("Image upload for gift {} failed", giftId, e);
+            giftRepository.updateImageStatus(giftId, Gift.ImageStatus.FAILED);
+        } finally {
+            deleteStaged(stagedFile);
+            eventVersionService.changed(eventId);
+        }
+    }
+
+    // Replaces whatever image the gift has right now and returns the URLs that lost their reference:
+    // the replaced ones, or the new ones if the gift was deleted while the upload ran
+    private List<String> swapIn(Long giftId, ImageService.UploadedImage uploaded) {
+        List<String> uploadedUrls = Stream.of(uploaded.fullUrl(), uploaded.cardUrl(), uploaded.thumbnailUrl())
+                .filter(Objects::nonNull)
+                .toList();
+        for (int attempt = 0; attempt < MAX_SWAP_ATTEMPTS; attempt++) {
+            List<Object[]> rows = giftRepository.findImageUrlsById(giftId);
+            if (rows.isEmpty()) {
+                return uploadedUrls;
+            }
+            Object[] current = rows.get(0);
+            int updated = giftRepository.replaceImage(giftId, (String) current[0], uploaded.fullUrl(),
+                    uploaded.cardUrl(), uploaded.thumbnailUrl(), Gift.ImageStatus.READY);
+            if (updated == 1) {
+                // An external image was never referenced, so there is nothing to release
+                return Boolean.TRUE.equals(current[3]) ? List.of()
+                        : Arrays.stream(current, 0, 3).filter(Objects::nonNull).map(String.class::cast).toList();
+            }
+            // Another upload for this gift landed between the read and the update
+        }
+        log.warn("Gift {} kept changing its image; dropping this upload", giftId);
+        return uploadedUrls;
+    }
+
+    /**
+     * Hands the staged file to the worker pool. When the queue is full the gift is
+     * marked FAILED straight away instead of blocking the request thread.
+     */
+    public void submit(Long giftId, Long eventId, Path stagedFile) {
+        try {
+            imageUploadExecutor.execute(() -> upload(giftId, eventId, stagedFile));
+        } catch (TaskRejectedException e) {
+            log.warn("Image upload queue full, dropping upload for gift {}", giftId);
+            giftRepository.updateImageStatus(giftId, Gift.ImageStatus.FAILED);
+            deleteStaged(stagedFile);
+        }
+    }
+
+    private static void deleteStaged(Path stagedFile) {
+        try {
+            Files.deleteIfExists(stagedFile);
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}: {}", stagedFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.giftregistry.server.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giftregistry.server.model.Gift;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk gift import from a JSON array or CSV. The whole batch is validated first; only a batch
+ * with no errors is written, as one JDBC batch in a single transaction.
+ */
+@Service
+public class GiftImportService {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final List<String> FIELDS =
+            List.of("name", "recipient", "price", "store", "description", "productUrl", "imageUrl");
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    // Gift ids are IDENTITY, which stops Hibernate batching inserts, so rows go in through JDBC
+    private static final String INSERT_SQL = "INSERT INTO gifts (name, recipient, price, store, description, " +
+            "product_url, image, image_status, image_external, status, event_id, planned_by_id, version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    public record RowError(int row, String field, String message) {}
+
+    public record ImportResult(int imported, List<RowError> errors) {
+        public boolean ok() { return errors.isEmpty(); }
+    }
+
+    private record GiftRow(String name, String recipient, BigDecimal price, String store,
+                           String description, String productUrl, String imageUrl) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Value("${app.gifts.import.max-rows:1000}")
+    private int maxRows;
+
+    @Transactional
+    public ImportResult importJson(Long eventId, Long plannedById, String body) {
+        List<Map<String, String>> rows = new ArrayList<>();
+        try {
+            JsonNode root = JSON.readTree(body);
+            if (root == null || !root.isArray()) {
+                return rejected(new RowError(0, null, "Body must be a JSON array of gifts"));
+            }
+            for (JsonNode node : root) {
+                Map<String, String> row = new HashMap<>();
+                if (node.isObject()) {
+                    for (Map.Entry<String, JsonNode> field : node.properties()) {
+                        row.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText());
+                    }
+                }
+                rows.add(row);
+            }
+        } catch (IOException e) {
+            return rejected(new RowError(0, null, "Invalid JSON: " + e.getMessage()));
+        }
+        return importRows(eventId, plannedById, rows);
+    }
+
+    @Transactional
+    public ImportResult importCsv(Long eventId, Long plannedById, String body) {
+        List<List<String>> records = parseCsv(body);
+        if (records.isEmpty()) {
+            return rejected(new RowError(0, null, "CSV needs a header row"));
+        }
+        Map<Integer, String> columns = new LinkedHashMap<>();
+        List<String> header = records.get(0);
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            String field = FIELDS.stream().filter(f -> f.equalsIgnoreCase(name)).findFirst().orElse(null);
+            if (field == null) {
+                return rejected(new RowError(0, name, "Unknown column; expected " + FIELDS));
+            }
+            columns.put(i, field);
+        }
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (List<String> record : records.subList(1, records.size())) {
+            Map<String, String> row = new HashMap<>();
+            columns.forEach((index, field) -> row.put(field, index < record.size() ? record.get(index) : null));
+            rows.add(row);
+        }
+        return importRows(eventId, plannedById, rows);
+    }
+
+    private ImportResult importRows(Long eventId, Long plannedById, List<Map<String, String>> rows) {
+        if (rows.isEmpty()) {
+            return rejected(new RowError(0, null, "No gifts to import"));
+        }
+        if (rows.size() > maxRows) {
+            return rejected(new RowError(0, null, "At most " + maxRows + " gifts per import"));
+        }
+
+        List<RowError> errors = new ArrayList<>();
+        List<GiftRow> gifts = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            gifts.add(validate(i + 1, rows.get(i), errors));
+        }
+        if (!errors.isEmpty()) {
+            return new ImportResult(0, errors);
+        }
+        insert(eventId, plannedById, gifts);
+        return new ImportResult(gifts.size(), List.of());
+    }
+
+    private static GiftRow validate(int row, Map<String, String> values, List<RowError> errors) {
+        String name = required(row, "name", values, MAX_TEXT_LENGTH, errors);
+        String recipient = required(row, "recipient", values, MAX_TEXT_LENGTH, errors);
+        String store = required(row, "store", values, MAX_TEXT_LENGTH, errors);
+        String description = optional(row, "description", values, MAX_DESCRIPTION_LENGTH, errors);
+        String productUrl = url(row, "productUrl", values, errors);
+        String imageUrl = url(row, "imageUrl", values, errors);
+
+        BigDecimal price = null;
+        String rawPrice = trimmed(values.get("price"));
+        if (rawPrice == null) {
+            errors.add(new RowError(row, "price", "is required"));
+        } else {
+            try {
+                price = new BigDecimal(rawPrice);
+                if (price.signum() < 0) {
+                    errors.add(new RowError(row, "price", "must not be negative"));
+                } else if (price.stripTrailingZeros().scale() > 2) {
+                    errors.add(new RowError(row, "price", "must have at most 2 decimal places"));
+                }
+            } catch (NumberFormatException e) {
+                errors.add(new RowError(row, "price", "is not a number"));
+            }
+        }
+        return new GiftRow(name, recipient, price, store, description, productUrl, imageUrl);
+    }
+
+    private static String required(int row, String field, Map<String, String> values, int maxLength, List<RowError> errors) {
+        String value = optional(row, field, values, maxLength, errors);
+        if (value == null) {
+            errors.add(new RowError(row, field, "is required"));
+        }
+        return value;
+    }
+
+    private static String optional(int row, String field, Map<String, String> values, int maxLength, List<RowError> errors) {
+        String value = trimmed(values.get(field));
+        if (value != null && value.length() > maxLength) {
+            errors.add(new RowError(row, field, "must be at most " + maxLength + " characters"));
+        }
+        return value;
+    }
+
+    private static String url(int row, String field, Map<String, String> values, List<RowError> errors) {
+        String value = trimmed(values.get(field));
+        if (value != null && !value.toLowerCase(Locale.ROOT).matches("https?://\\S+")) {
+            errors.add(new RowError(row, field, "must be an http(s) URL"));
+        }
+        return value;
+    }
+
+    private static String trimmed(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private void insert(Long eventId, Long plannedById, List<GiftRow> gifts) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(gifts.size());
+        for (GiftRow gift : gifts) {
+            Gift.ImageStatus imageStatus = gift.imageUrl() != null ? Gift.ImageStatus.READY : Gift.ImageStatus.NONE;
+            // A copied store URL shares the source gift's image; anything else is never ours to free.
+            // The reference is taken in this transaction, so a failed batch gives it back
+            boolean external = gift.imageUrl() != null && !imageService.acquireImage(gift.imageUrl());
+            batch.add(new Object[]{gift.name(), gift.recipient(), gift.price(), gift.store(), gift.description(),
+                    gift.productUrl(), gift.imageUrl(), imageStatus.name(), external, Gift.GiftStatus.PLANNED.name(),
+                    eventId, plannedById, now, now});
+        }
+        // With rewriteBatchedStatements the driver sends the batch as multi-row INSERTs
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    private static ImportResult rejected(RowError error) {
+        return new ImportResult(0, List.of(error));
+    }
+
+    // RFC 4180: quoted fields may hold commas, doubled quotes and line breaks
+    static List<List<String>> parseCsv(String body) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        String text = body.startsWith("\uFEFF") ? body.substring(1) : body;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') i++;
+                if (fieldStarted || field.length() > 0) {
+                    record.add(field.toString());
+                    records.add(record);
+                }
+                record = new ArrayList<>();
+                field.setLength(0);
+                fieldStarted = false;
+            } else {
+                field.append(c);
+                fieldStarted = true;
+            }
+        }
+        if (fieldStarted || field.length() > 0) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,157 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.ImageDeletion;
+import com.giftregistry.server.repository.ImageDeletionRepository;
+import com.giftregistry.server.repository.StoredImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent queue of stored images to remove. Request threads only insert a row; a scheduled
+ * drainer hands due keys to the ImageStore in batches (one Admin API call per batch on Cloudinary).
+ * A batch holds its row locks across the store call; see {@link #cancel}.
+ */
+@Service
+public class ImageDeletionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDeletionQueue.class);
+
+    // Cloudinary's delete_resources accepts at most 100 public ids per call
+    private static final int MAX_IDS_PER_CALL = 100;
+    private static final long MAX_BACKOFF_SECONDS = 6 * 3600;
+
+    @Autowired
+    private ImageDeletionRepository deletionRepository;
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.images.deletion.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.images.deletion.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.images.deletion.backoff-seconds:60}")
+    private long backoffSeconds;
+
+    private final AtomicLong deletedTotal = new AtomicLong();
+    private final AtomicLong skippedTotal = new AtomicLong();
+    private final AtomicLong retriedTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private final AtomicLong deleteCalls = new AtomicLong();
+
+    public ImageDeletion enqueue(String publicId, String contentHash) {
+        return deletionRepository.save(new ImageDeletion(publicId, contentHash));
+    }
+
+    /**
+     * Drops queued deletions of this content before it is stored again. If a drain has the row
+     * locked this waits until that drain has deleted the file, so the caller's store recreates it.
+     */
+    public void cancel(String contentHash) {
+        deletionRepository.cancel(contentHash);
+    }
+
+    @Scheduled(fixedDelayString = "${app.images.deletion.poll-interval-ms:10000}")
+    public void drain() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> drainBatch());
+    }
+
+    private void drainBatch() {
+        List<ImageDeletion> due = deletionRepository.lockDue(
+                ImageDeletion.DeletionStatus.PENDING, LocalDateTime.now(),
+                PageRequest.of(0, Math.min(batchSize, MAX_IDS_PER_CALL)));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Content uploaded again since it was queued is back in use and must survive
+        Set<String> reused = new HashSet<>(storedImageRepository.findExistingPublicIds(
+                due.stream().map(ImageDeletion::getPublicId).toList()));
+        List<ImageDeletion> done = new ArrayList<>();
+        List<ImageDeletion> toDelete = new ArrayList<>();
+        for (ImageDeletion deletion : due) {
+            if (reused.contains(deletion.getPublicId())) {
+                skippedTotal.incrementAndGet();
+                done.add(deletion);
+            } else {
+                toDelete.add(deletion);
+            }
+        }
+
+        List<ImageDeletion> retries = new ArrayList<>();
+        if (!toDelete.isEmpty()) {
+            Set<String> gone;
+            String error = null;
+            try {
+                deleteCalls.incrementAndGet();
+                gone = imageStore.delete(toDelete.stream().map(ImageDeletion::getPublicId).toList());
+            } catch (Exception e) {
+                gone = Set.of();
+                error = e.getMessage();
+            }
+            for (ImageDeletion deletion : toDelete) {
+                if (gone.contains(deletion.getPublicId())) {
+                    deletedTotal.incrementAndGet();
+                    done.add(deletion);
+                } else {
+                    scheduleRetry(deletion, error != null ? error : "store did not delete " + deletion.getPublicId());
+                    retries.add(deletion);
+                }
+            }
+        }
+
+        deletionRepository.deleteAll(done);
+        deletionRepository.saveAll(retries);
+    }
+
+    private void scheduleRetry(ImageDeletion deletion, String error) {
+        int attempts = deletion.getAttempts() + 1;
+        deletion.setAttempts(attempts);
+        deletion.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        if (attempts >= maxAttempts) {
+            deletion.setStatus(ImageDeletion.DeletionStatus.FAILED);
+            failedTotal.incrementAndGet();
+            log.error("Giving up on deleting image {}: {}", deletion.getPublicId(), error);
+            return;
+        }
+        long delay = Math.min(backoffSeconds << (attempts - 1), MAX_BACKOFF_SECONDS);
+        deletion.setNextAttemptAt(LocalDateTime.now().plusSeconds(delay));
+        retriedTotal.incrementAndGet();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", deletionRepository.countByStatus(ImageDeletion.DeletionStatus.PENDING));
+        stats.put("failed", deletionRepository.countByStatus(ImageDeletion.DeletionStatus.FAILED));
+        stats.put("deletedTotal", deletedTotal.get());
+        stats.put("skippedTotal", skippedTotal.get());
+        stats.put("retriedTotal", retriedTotal.get());
+        stats.put("failedTotal", failedTotal.get());
+        stats.put("deleteCalls", deleteCalls.get());
+        return stats;
+    }
+}
@@ -1,75 +1,189 @@
 // src/main/java/com/giftregistry/server/service/ImageService.java
 package com.giftregistry.server.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.giftregistry.server.model.StoredImage;
+import com.giftregistry.server.repository.StoredImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Map;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ImageService {
 
+    private static final Logger log = LoggerFactory.getLogger(ImageService.class);
+
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
     @Autowired
-    private Cloudinary cloudinary;
+    private ImageVariantProcessor variantProcessor;
+
+    @Autowired
+    private ImageDeletionQueue imageDeletionQueue;
+
+    // URLs of one uploaded image; card and thumbnail are null when the format could not be resized
+    public record UploadedImage(String fullUrl, String cardUrl, String thumbnailUrl) {}
 
     public String uploadImage(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             return null;
         }
+        Path staged = stageUpload(file);
+        try {
+            return uploadImage(staged.toFile());
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
 
-        Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(), 
-            ObjectUtils.asMap(
-                "folder", "gift-registry",
-                "use_filename", true,
-                "unique_filename", false,
-                "overwrite", true
-            ));
-
-        return (String) uploadResult.get("secure_url"); // Returns HTTPS URL
+    /**
+     * Moves the multipart temp file somewhere that outlives the request. Tomcat keeps
+     * uploads on disk, so this is a rename or a file copy rather than a read into the heap.
+     */
+    public Path stageUpload(MultipartFile file) throws IOException {
+        Path staged = Files.createTempFile("gift-image-", ".upload");
+        try {
+            file.transferTo(staged);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+        return staged;
     }
 
-    public boolean deleteImage(String imageUrl) {
+    /**
+     * Resizes a staged upload into its FULL, CARD and THUMBNAIL variants and stores each one.
+     * Formats ImageIO cannot decode are stored as they are, without variants.
+     */
+    public UploadedImage uploadVariants(Path staged) throws IOException {
+        ImageVariantProcessor.VariantFiles variants = variantProcessor.process(staged);
+        if (variants == null) {
+            return new UploadedImage(uploadImage(staged.toFile()), null, null);
+        }
+        List<String> uploaded = new ArrayList<>(3);
         try {
-            if (imageUrl == null || imageUrl.isEmpty()) {
-                return true;
+            for (ImageVariantProcessor.Variant variant : ImageVariantProcessor.Variant.values()) {
+                uploaded.add(uploadImage(variants.files().get(variant).toFile()));
             }
+        } catch (IOException | RuntimeException e) {
+            uploaded.forEach(this::deleteImage);
+            throw e;
+        } finally {
+            variants.deleteAll();
+        }
+        return new UploadedImage(uploaded.get(0), uploaded.get(1), uploaded.get(2));
+    }
 
-            // Extract public_id from URL
-            String publicId = extractPublicIdFromUrl(imageUrl);
-            if (publicId != null) {
-                cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+    /**
+     * Uploads are keyed by the SHA-256 of their bytes. Content that is already stored just
+     * gains a reference and returns its existing URL without touching the store.
+     */
+    public String uploadImage(File file) throws IOException {
+        String hash = sha256(file.toPath());
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Optional<StoredImage> existing = storedImageRepository.findByContentHash(hash);
+            if (existing.isPresent()) {
+                if (storedImageRepository.acquire(existing.get().getId()) > 0) {
+                    return existing.get().getUrl();
+                }
+                // Last reference is being released right now; wait for the row to go and upload again
+                continue;
             }
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error deleting image from Cloudinary: " + e.getMessage());
+
+            // A queued deletion of this content would otherwise remove the file just stored
+            imageDeletionQueue.cancel(hash);
+            ImageStore.StoredFile storedFile = imageStore.store(file.toPath(), hash);
+            try {
+                storedImageRepository.save(new StoredImage(hash, storedFile.key(), storedFile.url()));
+                return storedFile.url();
+            } catch (DataIntegrityViolationException e) {
+                // Another upload of the same content registered first; take a reference on its row
+            }
+        }
+        throw new IOException("Could not register image " + hash + " after " + MAX_CLAIM_ATTEMPTS + " attempts");
+    }
+
+    static String sha256(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Takes a reference on an image another gift already uses, for a gift that is given its URL
+     * rather than uploading. Returns false if the URL is not a live stored image, in which case the
+     * caller must mark the gift's image external so deleting the gift never frees it.
+     */
+    public boolean acquireImage(String imageUrl) {
+        String publicId = imageUrl == null ? null : imageStore.keyOf(imageUrl);
+        if (publicId == null) {
             return false;
         }
+        Optional<StoredImage> stored = storedImageRepository.findByPublicId(publicId);
+        // A zero count means the last reference is being released and the file is about to go
+        return stored.isPresent() && storedImageRepository.acquire(stored.get().getId()) > 0;
     }
 
-    private String extractPublicIdFromUrl(String imageUrl) {
+    /**
+     * Drops one gift's reference to an image. When the last reference goes (or the image
+     * predates hashing) the asset is queued for deletion; no remote call happens on the caller's thread.
+     */
+    public boolean deleteImage(String imageUrl) {
         try {
-            // Cloudinary URL format: https://res.cloudinary.com/cloudname/image/upload/v1234567/folder/filename.jpg
-            String[] parts = imageUrl.split("/upload/");
-            if (parts.length > 1) {
-                String path = parts[1];
-                // Remove version if present
-                if (path.startsWith("v")) {
-                    path = path.substring(path.indexOf('/') + 1);
-                }
-                // Remove file extension
-                int lastDot = path.lastIndexOf('.');
-                if (lastDot != -1) {
-                    path = path.substring(0, lastDot);
+            if (imageUrl == null || imageUrl.isEmpty()) {
+                return true;
+            }
+
+            // URLs the current store did not issue (e.g. pasted product images) are left alone
+            String publicId = imageStore.keyOf(imageUrl);
+            if (publicId == null) {
+                return true;
+            }
+            Optional<StoredImage> stored = storedImageRepository.findByPublicId(publicId);
+            if (stored.isPresent()) {
+                Long id = stored.get().getId();
+                storedImageRepository.release(id);
+                if (storedImageRepository.deleteIfUnreferenced(id) == 0) {
+                    return true;
                 }
-                return path;
             }
+            imageDeletionQueue.enqueue(publicId, stored.map(StoredImage::getContentHash).orElse(null));
+            return true;
         } catch (Exception e) {
-            System.err.println("Error extracting public ID from URL: " + imageUrl);
+            log.error("Error queueing image deletion", e);
+            return false;
         }
-        return null;
     }
 }
\ No newline at end of file
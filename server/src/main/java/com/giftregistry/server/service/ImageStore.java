@@ -0,0 +1,33 @@
+package com.giftregistry.server.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Where gift image bytes live. The backend is chosen with app.images.store
+ * ({@code cloudinary} or {@code local}); everything above it only deals in keys and URLs.
+ */
+public interface ImageStore {
+
+    // key identifies the object inside the store; url is what clients fetch
+    record StoredFile(String key, String url) {}
+
+    /**
+     * Stores a file under a name derived from its content hash. Storing the same hash
+     * twice must not overwrite or duplicate the object.
+     */
+    StoredFile store(Path file, String contentHash) throws IOException;
+
+    /**
+     * Maps a URL handed out by {@link #store} back to its key, or null if this store did not issue it.
+     */
+    String keyOf(String url);
+
+    /**
+     * Removes a batch of objects and returns the keys that are now gone, including ones that
+     * were already missing. Keys not returned are retried later.
+     */
+    Set<String> delete(Collection<String> keys) throws IOException;
+}
@@ -0,0 +1,232 @@
+package com.giftregistry.server.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodes an uploaded image once and writes downscaled variants to temp files, largest
+ * first so each step resizes the previous result. Work runs on the bounded imageProcessingExecutor.
+ */
+@Service
+public class ImageVariantProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantProcessor.class);
+
+    public enum Variant {
+        FULL(1600), CARD(600), THUMBNAIL(200);
+
+        private final int maxEdge;
+
+        Variant(int maxEdge) { this.maxEdge = maxEdge; }
+
+        public int getMaxEdge() { return maxEdge; }
+    }
+
+    // Files for each variant plus the size of the decoded raster, which dominates peak memory
+    public record VariantFiles(Map<Variant, Path> files, long decodedBytes) {
+        public void deleteAll() {
+            files.values().forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Could not delete image variant {}: {}", path, e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Reject decompression bombs before allocating a raster for them
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    @Autowired(required = false)
+    @Qualifier("imageProcessingExecutor")
+    private AsyncTaskExecutor imageProcessingExecutor;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong unsupported = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong peakDecodedBytes = new AtomicLong();
+
+    /**
+     * Runs {@link #createVariants} on the processing pool and waits for it, so CPU-heavy
+     * resizing never runs wider than the pool however many uploads are in flight.
+     * Returns null when the format cannot be decoded.
+     */
+    public VariantFiles process(Path source) throws IOException {
+        if (imageProcessingExecutor == null) {
+            return createVariants(source);
+        }
+        try {
+            return imageProcessingExecutor.submit(() -> createVariants(source)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while resizing image", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException("Image processing failed", e.getCause());
+        }
+    }
+
+    public VariantFiles createVariants(Path source) throws IOException {
+        long start = System.nanoTime();
+        BufferedImage decoded = decode(source);
+        if (decoded == null) {
+            unsupported.incrementAndGet();
+            return null;
+        }
+        long decodedBytes = rasterBytes(decoded);
+        peakDecodedBytes.accumulateAndGet(decodedBytes, Math::max);
+
+        Map<Variant, Path> files = new EnumMap<>(Variant.class);
+        VariantFiles result = new VariantFiles(files, decodedBytes);
+        try {
+            BufferedImage current = decoded;
+            for (Variant variant : Variant.values()) {
+                current = scaleDown(current, variant.getMaxEdge());
+                files.put(variant, write(current, variant));
+            }
+        } catch (IOException | RuntimeException e) {
+            result.deleteAll();
+            throw e;
+        }
+        processed.incrementAndGet();
+        totalNanos.addAndGet(System.nanoTime() - start);
+        return result;
+    }
+
+    private static BufferedImage decode(Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                // Large photos are subsampled while decoding, so the raster never exceeds twice the FULL edge
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(width, height) / Variant.FULL.getMaxEdge();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves repeatedly while far above the target, which keeps bilinear scaling sharp
+    static BufferedImage scaleDown(BufferedImage image, int maxEdge) {
+        BufferedImage current = image;
+        while (Math.max(current.getWidth(), current.getHeight()) > maxEdge) {
+            int longEdge = Math.max(current.getWidth(), current.getHeight());
+            double factor = longEdge / 2 >= maxEdge ? 0.5 : (double) maxEdge / longEdge;
+            int width = Math.max(1, (int) Math.round(current.getWidth() * factor));
+            int height = Math.max(1, (int) Math.round(current.getHeight() * factor));
+            current = resize(current, width, height);
+        }
+        return current;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        int type = switch (source.getType()) {
+            // Keep the decoder's layout when it is a standard one; same-type draws take the fast path
+            case BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB -> source.getType();
+            default -> source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        };
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static Path write(BufferedImage image, Variant variant) throws IOException {
+        boolean alpha = image.getColorModel().hasAlpha();
+        Path file = Files.createTempFile("gift-image-" + variant.name().toLowerCase() + "-", alpha ? ".png" : ".jpg");
+        try {
+            if (alpha) {
+                ImageIO.write(image, "png", file.toFile());
+            } else {
+                writeJpeg(toRgb(image), file);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // The JPEG writer rejects indexed and gray-alpha rasters, so anything unusual is redrawn as RGB
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return image;
+        }
+        return resize(image, image.getWidth(), image.getHeight());
+    }
+
+    private static long rasterBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    public Map<String, Object> stats() {
+        long count = processed.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("processed", count);
+        stats.put("unsupported", unsupported.get());
+        stats.put("avgMillis", count == 0 ? 0 : totalNanos.get() / count / 1_000_000.0);
+        stats.put("peakDecodedBytes", peakDecodedBytes.get());
+        return stats;
+    }
+}
@@ -0,0 +1,56 @@
+package com.giftregistry.server.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of one bulk invitation run, polled by the creator while it works in the background.
+ */
+public class InvitationJob {
+
+    public enum JobStatus { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Long eventId;
+    private final int total;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final List<String> failed = Collections.synchronizedList(new ArrayList<>());
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile LocalDateTime finishedAt;
+
+    public InvitationJob(String id, Long eventId, int total) {
+        this.id = id;
+        this.eventId = eventId;
+        this.total = total;
+    }
+
+    void markRunning() { this.status = JobStatus.RUNNING; }
+
+    void markFinished(JobStatus status) {
+        this.status = status;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    void recordSent(int count) { sent.addAndGet(count); }
+
+    void recordFailed(String email, String reason) { failed.add(email + " (" + reason + ")"); }
+
+    public String getId() { return id; }
+    public Long getEventId() { return eventId; }
+    public int getTotal() { return total; }
+    public JobStatus getStatus() { return status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public int getTotalSent() { return sent.get(); }
+    public int getTotalFailed() { return failed.size(); }
+
+    public List<String> getFailed() {
+        synchronized (failed) {
+            return new ArrayList<>(failed);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.RSVP;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs bulk RSVP invitations off the request thread. Guests are saved in chunks
+ * through Hibernate JDBC batching and each chunk's emails are queued once its rows exist.
+ */
+@Service
+public class InvitationJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(InvitationJobService.class);
+
+    private static final int CHUNK_SIZE = RSVP.ID_ALLOCATION_SIZE;
+    private static final long FINISHED_JOB_RETENTION_MINUTES = 60;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private RSVPCounterService rsvpCounterService;
+
+    private final Map<String, InvitationJob> jobs = new ConcurrentHashMap<>();
+
+    public InvitationJob createJob(Long eventId, List<String> guestEmails) {
+        purgeFinishedJobs();
+        InvitationJob job = new InvitationJob(UUID.randomUUID().toString(), eventId, guestEmails.size());
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public InvitationJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    @Async
+    public void runJob(InvitationJob job, Event event, List<String> guestEmails) {
+        job.markRunning();
+        try {
+            List<String> valid = new ArrayList<>();
+            for (String email : guestEmails) {
+                if (email == null || email.isBlank() || !email.contains("@")) {
+                    job.recordFailed(String.valueOf(email), "invalid email");
+                } else {
+                    valid.add(email.trim());
+                }
+            }
+
+            for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+                List<String> chunk = valid.subList(from, Math.min(from + CHUNK_SIZE, valid.size()));
+                processChunk(job, event, chunk);
+            }
+            job.markFinished(InvitationJob.JobStatus.COMPLETED);
+            log.info("Invitation job {} finished: {} sent, {} failed", job.getId(), job.getTotalSent(),
+                    job.getTotalFailed());
+        } catch (Exception e) {
+            log.error("Invitation job {} failed", job.getId(), e);
+            job.markFinished(InvitationJob.JobStatus.FAILED);
+        }
+    }
+
+    private void processChunk(InvitationJob job, Event event, List<String> chunk) {
+        List<RSVP> rsvps = new ArrayList<>(chunk.size());
+        for (String email : chunk) {
+            RSVP rsvp = new RSVP();
+            rsvp.setGuestEmail(email);
+            rsvp.setEvent(event);
+            rsvp.setStatus(RSVP.RSVPStatus.PENDING);
+            rsvps.add(rsvp);
+        }
+
+        List<RSVP> saved;
+        try {
+            // saveAll runs in one transaction, so the chunk goes out as a single JDBC batch
+            saved = rsvpCounterService.saveInvited(event.getId(), rsvps);
+        } catch (Exception e) {
+            for (String email : chunk) {
+                job.recordFailed(email, e.getMessage());
+            }
+            return;
+        }
+
+        for (RSVP rsvp : saved) {
+            try {
+                emailService.sendRSVPInvitation(rsvp.getGuestEmail(), event, rsvp.getId());
+                job.recordSent(1);
+            } catch (Exception e) {
+                job.recordFailed(rsvp.getGuestEmail(), e.getMessage());
+            }
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(FINISHED_JOB_RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,97 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Renders rsvp-invitation-email once per event content version with a placeholder RSVP id,
+ * then builds each guest's copy by splicing the real id into the pre-split HTML. Every change
+ * to an event goes through {@link EventVersionService#changed}, so a new version means a re-render.
+ */
+@Service
+public class InvitationRenderer {
+
+    static final String RSVP_ID_PLACEHOLDER = "__RSVP_ID__";
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile(Pattern.quote(RSVP_ID_PLACEHOLDER));
+    private static final int MAX_CACHED_EVENTS = 256;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy ");
+
+    private final TemplateEngine templateEngine;
+    private final String baseUrl;
+
+    private record RenderedInvitation(long version, String[] segments, int length) {}
+
+    private final Map<Long, RenderedInvitation> rendered = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, RenderedInvitation> eldest) {
+            return size() > MAX_CACHED_EVENTS;
+        }
+    };
+
+    public InvitationRenderer(TemplateEngine templateEngine,
+                              @Value("${app.base-url:http://localhost:3000}") String baseUrl) {
+        this.templateEngine = templateEngine;
+        this.baseUrl = baseUrl;
+    }
+
+    public String render(Event event, Long rsvpId) {
+        if (event.getId() == null) {
+            return renderFromScratch(event, String.valueOf(rsvpId));
+        }
+        RenderedInvitation invitation = renderedFor(event);
+        String id = String.valueOf(rsvpId);
+        String[] segments = invitation.segments();
+        StringBuilder html = new StringBuilder(invitation.length() + (segments.length - 1) * id.length());
+        html.append(segments[0]);
+        for (int i = 1; i < segments.length; i++) {
+            html.append(id).append(segments[i]);
+        }
+        return html.toString();
+    }
+
+    /**
+     * Full Thymeleaf pass for a single guest, as every invitation used to be rendered.
+     */
+    public String renderFromScratch(Event event, String rsvpId) {
+        Context context = new Context();
+        context.setVariable("event", event);
+        context.setVariable("eventDate", event.getDate().format(DATE_FORMATTER));
+        context.setVariable("eventKey", event.getEventKey());
+        context.setVariable("creatorName", event.getCreator().getUsername());
+        context.setVariable("acceptUrl", baseUrl + "/rsvp/" + rsvpId + "/respond/accepted");
+        context.setVariable("declineUrl", baseUrl + "/rsvp/" + rsvpId + "/respond/declined");
+        context.setVariable("eventSearchUrl", baseUrl + "/search-event");
+        return templateEngine.process("rsvp-invitation-email", context);
+    }
+
+    public void evict(Long eventId) {
+        synchronized (rendered) {
+            rendered.remove(eventId);
+        }
+    }
+
+    private RenderedInvitation renderedFor(Event event) {
+        synchronized (rendered) {
+            RenderedInvitation cached = rendered.get(event.getId());
+            if (cached != null && cached.version() == event.getContentVersion()) {
+                return cached;
+            }
+        }
+        // Render outside the lock; a concurrent miss for the same event just renders twice
+        String html = renderFromScratch(event, RSVP_ID_PLACEHOLDER);
+        RenderedInvitation fresh = new RenderedInvitation(
+                event.getContentVersion(), PLACEHOLDER_PATTERN.split(html, -1), html.length());
+        synchronized (rendered) {
+            rendered.put(event.getId(), fresh);
+        }
+        return fresh;
+    }
+}
@@ -0,0 +1,122 @@
+package com.giftregistry.server.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps images on the local filesystem under app.images.local.root and serves them
+ * through LocalImageController. Needs no credentials, so it also suits development and benchmarks.
+ */
+@Service
+@ConditionalOnProperty(name = "app.images.store", havingValue = "local")
+public class LocalImageStore implements ImageStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalImageStore.class);
+
+    private static final String FOLDER = "gift-registry";
+    // Keys are always folder/<sha256>.<ext>; anything else is rejected before touching the disk
+    private static final Pattern KEY_PATTERN = Pattern.compile("[a-z-]+/[0-9a-f]{64}\\.[a-z]{3,4}");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg", "png", "image/png", "gif", "image/gif", "webp", "image/webp");
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalImageStore(@Value("${app.images.local.root:uploads/images}") String root,
+                           @Value("${app.images.local.base-url:http://localhost:8080/api/images}") String baseUrl)
+            throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        Files.createDirectories(this.root.resolve(FOLDER));
+        log.info("Local image store at {}", this.root);
+    }
+
+    @Override
+    public StoredFile store(Path file, String contentHash) throws IOException {
+        String key = FOLDER + "/" + contentHash + "." + extensionOf(file);
+        Path target = root.resolve(key);
+        if (!Files.exists(target)) {
+            // Copy beside the target and rename, so readers never see a half-written file
+            Path partial = Files.createTempFile(target.getParent(), contentHash, ".part");
+            try {
+                Files.copy(file, partial, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content stored concurrently; the existing file is identical
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+        return new StoredFile(key, baseUrl + "/" + key);
+    }
+
+    @Override
+    public String keyOf(String url) {
+        if (url == null || !url.startsWith(baseUrl + "/")) {
+            return null;
+        }
+        String key = url.substring(baseUrl.length() + 1);
+        return KEY_PATTERN.matcher(key).matches() ? key : null;
+    }
+
+    @Override
+    public Set<String> delete(Collection<String> keys) throws IOException {
+        Set<String> gone = new HashSet<>();
+        for (String key : keys) {
+            Path path = resolve(key);
+            if (path != null) {
+                Files.deleteIfExists(path);
+            }
+            gone.add(key);
+        }
+        return gone;
+    }
+
+    /**
+     * The file for a key, or null if the key is malformed. Never resolves outside the root.
+     */
+    public Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            return null;
+        }
+        Path path = root.resolve(key).normalize();
+        return path.startsWith(root) ? path : null;
+    }
+
+    public String contentTypeOf(String key) {
+        String extension = key.substring(key.lastIndexOf('.') + 1);
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+
+    // Sniffs the magic bytes, since staged uploads carry no useful file name
+    private static String extensionOf(Path file) throws IOException {
+        byte[] head = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(head, 0, head.length);
+        }
+        String ascii = new String(head, 0, read, StandardCharsets.ISO_8859_1);
+        if (read >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) return "jpg";
+        if (ascii.startsWith("\u0089PNG")) return "png";
+        if (ascii.startsWith("GIF8")) return "gif";
+        if (ascii.startsWith("RIFF") && ascii.startsWith("WEBP", 8)) return "webp";
+        return "bin";
+    }
+}
@@ -0,0 +1,122 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.RSVP;
+import com.giftregistry.server.repository.RSVPRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Per-event RSVP counts by status. The first read for an event runs one grouped
+ * COUNT query; after that the counts are adjusted in place on invite and response.
+ * RSVP writes go through this service and hold the event's read lock from the write until
+ * the delta is applied, while a cold load holds the write lock around its query. A load
+ * therefore either sees a write's rows or has the write's delta applied to it, never both or neither.
+ */
+@Service
+public class RSVPCounterService {
+
+    private static final RSVP.RSVPStatus[] STATUSES = RSVP.RSVPStatus.values();
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private RSVPRepository rsvpRepository;
+
+    private final Map<Long, AtomicLongArray> countsByEvent = new ConcurrentHashMap<>();
+    // Striped by event id so the locks stay bounded and are never dropped while held
+    private final ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
+
+    public RSVPCounterService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public Map<RSVP.RSVPStatus, Long> getCounts(Long eventId) {
+        AtomicLongArray counts = countsByEvent.get(eventId);
+        if (counts == null) {
+            Lock lock = lockFor(eventId).writeLock();
+            lock.lock();
+            try {
+                counts = countsByEvent.computeIfAbsent(eventId, this::load);
+            } finally {
+                lock.unlock();
+            }
+        }
+        Map<RSVP.RSVPStatus, Long> result = new EnumMap<>(RSVP.RSVPStatus.class);
+        for (RSVP.RSVPStatus status : STATUSES) {
+            result.put(status, counts.get(status.ordinal()));
+        }
+        return result;
+    }
+
+    /**
+     * Saves new RSVPs for the event in one batch and counts them as pending.
+     */
+    public List<RSVP> saveInvited(Long eventId, List<RSVP> rsvps) {
+        return whileWriting(eventId, () -> {
+            List<RSVP> saved = rsvpRepository.saveAll(rsvps);
+            AtomicLongArray counts = countsByEvent.get(eventId);
+            if (counts != null) {
+                counts.addAndGet(RSVP.RSVPStatus.PENDING.ordinal(), saved.size());
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * Moves an RSVP from the status the caller read to the new one. Returns false, changing
+     * nothing, if another response got there first.
+     */
+    public boolean respond(Long eventId, Long rsvpId, RSVP.RSVPStatus from, RSVP.RSVPStatus to,
+                           LocalDateTime respondedAt) {
+        return whileWriting(eventId, () -> {
+            if (rsvpRepository.updateStatus(rsvpId, from, to, respondedAt) != 1) {
+                return false;
+            }
+            AtomicLongArray counts = countsByEvent.get(eventId);
+            if (counts != null && from != to) {
+                counts.decrementAndGet(from.ordinal());
+                counts.incrementAndGet(to.ordinal());
+            }
+            return true;
+        });
+    }
+
+    public void evict(Long eventId) {
+        countsByEvent.remove(eventId);
+    }
+
+    // The write commits inside the supplier, so a load that waits for this lock queries after the commit
+    private <T> T whileWriting(Long eventId, Supplier<T> write) {
+        Lock lock = lockFor(eventId).readLock();
+        lock.lock();
+        try {
+            return write.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReadWriteLock lockFor(Long eventId) {
+        return locks[Math.floorMod(eventId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private AtomicLongArray load(Long eventId) {
+        AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+        for (Object[] row : rsvpRepository.countByStatusForEvent(eventId)) {
+            counts.set(((RSVP.RSVPStatus) row[0]).ordinal(), (Long) row[1]);
+        }
+        return counts;
+    }
+}
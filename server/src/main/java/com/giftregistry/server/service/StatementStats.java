@@ -0,0 +1,183 @@
+package com.giftregistry.server.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Execution time per SQL statement shape, fed by TimedDataSource for every JDBC execute call.
+ * Recording is a map lookup and a histogram increment; statements over the slow threshold are
+ * always logged, the rest only at the sample rate. Bound parameters are never logged.
+ */
+@Service
+public class StatementStats {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementStats.class);
+
+    static final String OTHER_SHAPE = "<other>";
+
+    // Log-linear histogram: 4 sub-buckets per power of two microseconds, so percentiles are within ~19%
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final int maxShapes;
+
+    // Raw SQL to shape; Hibernate reuses its SQL strings, so normalization runs once per distinct statement
+    private final Map<String, String> shapesBySql = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> statsByShape = new ConcurrentHashMap<>();
+
+    public StatementStats(@Value("${app.sql.slow-threshold-ms:200}") long slowThresholdMs,
+                          @Value("${app.sql.sample-rate:0.001}") double sampleRate,
+                          @Value("${app.sql.max-shapes:500}") int maxShapes) {
+        this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+        this.sampleRate = sampleRate;
+        this.maxShapes = maxShapes;
+    }
+
+    public void record(String sql, long nanos) {
+        String shape = shapeFor(sql);
+        ShapeStats stats = statsByShape.get(shape);
+        if (stats == null) {
+            if (statsByShape.size() >= maxShapes) {
+                shape = OTHER_SHAPE;
+            }
+            stats = statsByShape.computeIfAbsent(shape, s -> new ShapeStats());
+        }
+        stats.record(nanos);
+
+        if (nanos >= slowThresholdNanos) {
+            stats.slow.increment();
+            log.warn("Slow SQL ({} ms): {}", nanos / 1_000_000, shape);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("Sampled SQL ({} µs): {}", nanos / 1_000, shape);
+        }
+    }
+
+    /**
+     * Shapes ordered by total time spent, most expensive first.
+     */
+    public Map<String, Object> stats() {
+        List<Map<String, Object>> shapes = new ArrayList<>();
+        statsByShape.forEach((shape, stats) -> shapes.add(stats.snapshot(shape)));
+        shapes.sort(Comparator.comparingDouble((Map<String, Object> s) -> (double) s.get("totalMillis")).reversed());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("slowThresholdMillis", slowThresholdNanos / 1_000_000);
+        result.put("sampleRate", sampleRate);
+        result.put("shapes", shapes);
+        return result;
+    }
+
+    private String shapeFor(String sql) {
+        if (sql == null) {
+            return OTHER_SHAPE;
+        }
+        String shape = shapesBySql.get(sql);
+        if (shape == null) {
+            shape = shapeOf(sql);
+            // Statements built with literals could otherwise grow this map without bound
+            if (shapesBySql.size() < maxShapes * 4) {
+                shapesBySql.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    // Collapses literals and IN / VALUES parameter lists so every execution of one query lands on the same shape
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+    }
+
+    static int bucketOf(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = magnitude < SUB_BUCKET_BITS
+                ? 0
+                : (int) (micros >>> (magnitude - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return (magnitude << SUB_BUCKET_BITS) + sub;
+    }
+
+    // Upper bound of a bucket in milliseconds
+    static double bucketUpperMillis(int bucket) {
+        int magnitude = bucket >>> SUB_BUCKET_BITS;
+        if (magnitude < SUB_BUCKET_BITS) {
+            return Math.pow(2, magnitude + 1) / 1_000.0;
+        }
+        int sub = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+        return (Math.pow(2, magnitude) + (sub + 1) * Math.pow(2, magnitude - SUB_BUCKET_BITS)) / 1_000.0;
+    }
+
+    private static final class ShapeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            buckets.incrementAndGet(bucketOf(nanos));
+        }
+
+        Map<String, Object> snapshot(String shape) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            long executions = count.sum();
+            Map<String, Object> snapshot = new HashMap<>();
+            snapshot.put("shape", shape);
+            snapshot.put("count", executions);
+            snapshot.put("slow", slow.sum());
+            snapshot.put("totalMillis", totalNanos.sum() / 1_000_000.0);
+            snapshot.put("meanMillis", executions == 0 ? 0.0 : totalNanos.sum() / executions / 1_000_000.0);
+            snapshot.put("maxMillis", maxNanos.get() / 1_000_000.0);
+            snapshot.put("p50Millis", percentile(counts, total, 0.50));
+            snapshot.put("p95Millis", percentile(counts, total, 0.95));
+            snapshot.put("p99Millis", percentile(counts, total, 0.99));
+            return snapshot;
+        }
+
+        private static double percentile(long[] counts, long total, double quantile) {
+            if (total == 0) {
+                return 0.0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return bucketUpperMillis(i);
+                }
+            }
+            return bucketUpperMillis(counts.length - 1);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Gifts whose image URL holds no stored_images reference: links pasted or imported from elsewhere,
+-- or copies of a store image that predates hashing. Deleting or replacing such a gift never frees
+-- the file. Existing gifts own the image they were created with, so they start at 0.
+alter table gifts add column image_external bit not null default 0;
@@ -0,0 +1,34 @@
+-- Indexes for the repository queries. InnoDB secondary indexes carry the primary key, so an
+-- index on (a, b) also covers "SELECT id ... WHERE a = ? AND b = ?" and orders equal rows by id.
+-- MySQL drops the implicit index it made for a foreign key once one of these can serve it.
+
+-- GiftRepository.findByEventId / findGiftIdsByEventIds / findImageUrlsByEventId, gift exports by event
+create index idx_gifts_event on gifts (event_id);
+
+-- GiftRepository.findByEventIdAndPlannedById(AndStatus); also serves the planned_by_id foreign key
+create index idx_gifts_planned_by_event_status on gifts (planned_by_id, event_id, status);
+
+-- Foreign key from the reserve endpoint
+create index idx_gifts_reserved_by on gifts (reserved_by_id);
+
+-- GiftRepository.findByStatus
+create index idx_gifts_status on gifts (status);
+
+-- RSVPRepository.countByStatusForEvent (index only), countByEventAndStatus, findByEventId
+create index idx_rsvps_event_status on rsvps (event_id, status);
+
+-- EventRepository.findDtosByType (category pages)
+create index idx_events_type_date on events (type, event_date);
+
+-- EventRepository.findDtosByDateAfter (upcoming events)
+create index idx_events_date on events (event_date);
+
+-- EventRepository.findDtosByCreatorId and existsByNameAndCreator; also serves the creator_id foreign key
+create index idx_events_creator_name on events (creator_id, name);
+
+-- EventRepository.findPublicPage / findPublicPageAfter keyset pages, newest first
+create index idx_events_created_id on events (created_at, id);
+
+-- EmailOutboxService and ImageDeletionQueue polls: status = ? AND next_attempt_at <= ? ORDER BY id
+create index idx_email_outbox_status_next on email_outbox (status, next_attempt_at);
+create index idx_image_deletion_status_next on image_deletion_queue (status, next_attempt_at);
@@ -0,0 +1,5 @@
+-- Content hash of a queued image, so an upload of the same bytes can cancel its pending deletion
+alter table image_deletion_queue add column content_hash varchar(64);
+
+-- ImageDeletionRepository.cancel
+create index idx_image_deletion_content_hash on image_deletion_queue (content_hash);
@@ -0,0 +1,72 @@
+-- Schema as it stood when Hibernate's ddl-auto=update still managed it. Databases created that way
+-- are baselined at this version (spring.flyway.baseline-on-migrate) and start from V2, so nothing
+-- added since belongs here; every later change is its own migration.
+
+create table users (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    name varchar(255),
+    location varchar(255),
+    image text,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table user_social_links (
+    user_id bigint not null,
+    platform varchar(255) not null,
+    link varchar(255),
+    primary key (user_id, platform),
+    constraint fk_user_social_links_user foreign key (user_id) references users (id)
+);
+
+create table events (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    event_date date not null,
+    event_key varchar(255),
+    creator_id bigint,
+    description varchar(255) not null,
+    location varchar(255),
+    type enum ('ANNIVERSARY','BIRTHDAY','HOLIDAY','OTHER','WEDDING') not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_events_event_key unique (event_key),
+    constraint fk_events_creator foreign key (creator_id) references users (id)
+);
+
+create table gifts (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    recipient varchar(255) not null,
+    price decimal(38,2) not null,
+    store varchar(255) not null,
+    description varchar(500),
+    product_url text,
+    image text,
+    status enum ('CANCELLED','PLANNED','PURCHASED') not null,
+    event_id bigint,
+    planned_by_id bigint,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint fk_gifts_event foreign key (event_id) references events (id),
+    constraint fk_gifts_planned_by foreign key (planned_by_id) references users (id)
+);
+
+create table rsvps (
+    id bigint not null auto_increment,
+    event_id bigint,
+    guest_email varchar(255) not null,
+    status enum ('ACCEPTED','DECLINED','PENDING') not null,
+    responded_at datetime(6),
+    created_at datetime(6),
+    primary key (id),
+    constraint fk_rsvps_event foreign key (event_id) references events (id)
+);
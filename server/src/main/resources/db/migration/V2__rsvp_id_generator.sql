@@ -0,0 +1,15 @@
+-- RSVP ids come from a pooled table generator so bulk invitations can batch their inserts.
+-- Rows created before the switch used AUTO_INCREMENT, so the generator starts past the highest
+-- existing id. The pooled optimizer hands out (next_val - 50, next_val], so a full block of
+-- headroom (allocationSize + 1) is left. Running here, before Hibernate starts, means no invite
+-- can draw an id from an unseeded row.
+create table id_generators (
+    gen_name varchar(255) not null,
+    next_val bigint,
+    primary key (gen_name)
+);
+
+insert into id_generators (gen_name, next_val)
+select 'rsvps', coalesce(max(id), 0) + 51 from rsvps;
+
+alter table rsvps modify id bigint not null;
@@ -0,0 +1,14 @@
+-- Durable outbox: request threads insert a row, a scheduled drainer sends in rate-limited windows
+create table email_outbox (
+    id bigint not null auto_increment,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    body text not null,
+    status enum ('FAILED','PENDING','SENT') not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    last_error varchar(500),
+    sent_at datetime(6),
+    created_at datetime(6),
+    primary key (id)
+);
@@ -0,0 +1,5 @@
+-- Uploads finish in the background, so a gift records where its image is. Gifts saved
+-- before this already have their final image, if any.
+alter table gifts add column image_status enum ('FAILED','NONE','PENDING','READY');
+
+update gifts set image_status = case when image is null then 'NONE' else 'READY' end;
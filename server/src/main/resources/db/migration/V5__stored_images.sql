@@ -0,0 +1,12 @@
+-- Uploaded images keyed by content hash, with the number of gifts that point at each one
+create table stored_images (
+    id bigint not null auto_increment,
+    content_hash varchar(64) not null,
+    public_id varchar(255) not null,
+    url text not null,
+    ref_count integer not null,
+    created_at datetime(6),
+    primary key (id),
+    constraint uk_stored_images_content_hash unique (content_hash),
+    constraint uk_stored_images_public_id unique (public_id)
+);
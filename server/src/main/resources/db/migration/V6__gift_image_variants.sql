@@ -0,0 +1,3 @@
+-- Downscaled copies of an uploaded image; null for older gifts and images given by URL
+alter table gifts add column card_image text;
+alter table gifts add column thumbnail_image text;
@@ -0,0 +1,11 @@
+-- Stored images waiting to be removed from the image store, drained in batches
+create table image_deletion_queue (
+    id bigint not null auto_increment,
+    public_id varchar(255) not null,
+    status enum ('FAILED','PENDING') not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    last_error varchar(500),
+    created_at datetime(6),
+    primary key (id)
+);
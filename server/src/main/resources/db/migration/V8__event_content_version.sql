@@ -0,0 +1,2 @@
+-- Bumped whenever an event or its gift list changes; backs the ETags and the event key cache
+alter table events add column content_version bigint not null default 0;
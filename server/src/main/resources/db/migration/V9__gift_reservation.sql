@@ -0,0 +1,4 @@
+-- Reservations, and the optimistic lock version that guards gift edits
+alter table gifts add column reserved_by_id bigint;
+alter table gifts add constraint fk_gifts_reserved_by foreign key (reserved_by_id) references users (id);
+alter table gifts add column version bigint not null default 0;
@@ -0,0 +1,156 @@
+package com.giftregistry.server.Config;
+
+import com.sun.net.httpserver.HttpServer;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares throughput and p99 latency of the platform and virtual Tomcat executors when every
+ * request blocks on slow stand-ins for JDBC and an outbound HTTP upload. Run with -Pload-test.
+ */
+@Tag("load")
+class ThreadModeLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadModeLoadTest.class);
+
+    private static final int REQUESTS = 4_000;
+    private static final int CONCURRENCY = 400;
+    private static final long DATABASE_MILLIS = 20;
+    private static final long REMOTE_MILLIS = 30;
+
+    private static HttpServer remoteStandIn;
+
+    @BeforeAll
+    static void startRemoteStandIn() throws IOException {
+        // Plays the part of Cloudinary/SMTP: answers every call after a fixed delay
+        remoteStandIn = HttpServer.create(new InetSocketAddress("localhost", 0), 2_000);
+        remoteStandIn.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        remoteStandIn.createContext("/upload", exchange -> {
+            sleep(REMOTE_MILLIS);
+            byte[] body = "{\"secure_url\":\"https://example.com/a.jpg\"}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        remoteStandIn.start();
+    }
+
+    @AfterAll
+    static void stopRemoteStandIn() {
+        remoteStandIn.stop(0);
+    }
+
+    @Test
+    void compareThreadModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        for (Result result : new Result[] { platform, virtual }) {
+            log.info(String.format("%-10s %8.1f req/s  p50 %6.1f ms  p99 %6.1f ms  %d errors",
+                    result.mode(), result.throughput(), result.p50Millis(), result.p99Millis(), result.errors()));
+        }
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (virtualThreads) {
+            // Same executor Spring Boot installs when spring.threads.virtual.enabled=true
+            factory.addProtocolHandlerCustomizers(handler ->
+                    handler.setExecutor(new VirtualThreadExecutor("tomcat-handler-")));
+        }
+        String remoteUrl = "http://localhost:" + remoteStandIn.getAddress().getPort() + "/upload";
+        WebServer server = factory.getWebServer(context ->
+                context.addServlet("slow", new SlowDependencyServlet(remoteUrl)).addMapping("/slow"));
+        server.start();
+        try {
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/slow");
+            long[] latencies = new long[REQUESTS];
+            AtomicInteger errors = new AtomicInteger();
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+            HttpClient client = HttpClient.newHttpClient();
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    int index = i;
+                    inFlight.acquire();
+                    clients.submit(() -> {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(
+                                    HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() != 200) errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        } finally {
+                            latencies[index] = System.nanoTime() - sent;
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            return new Result(virtualThreads ? "virtual" : "platform", REQUESTS / seconds,
+                    latencies[REQUESTS / 2] / 1e6, latencies[(int) (REQUESTS * 0.99)] / 1e6, errors.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private record Result(String mode, double throughput, double p50Millis, double p99Millis, int errors) {}
+
+    // A request that waits on a query and then on a blocking outbound HTTP call, like addGift
+    private static class SlowDependencyServlet extends HttpServlet {
+        private final String remoteUrl;
+
+        SlowDependencyServlet(String remoteUrl) {
+            this.remoteUrl = remoteUrl;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            sleep(DATABASE_MILLIS);
+            try (InputStream in = URI.create(remoteUrl).toURL().openStream()) {
+                response.getOutputStream().write(in.readAllBytes());
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
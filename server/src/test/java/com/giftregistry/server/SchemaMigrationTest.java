@@ -0,0 +1,114 @@
+package com.giftregistry.server;
+
+import com.giftregistry.server.model.RSVP;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.CoreMigrationType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts from a database as Hibernate's ddl-auto=update left it, lets Flyway baseline and migrate it
+ * with the application's settings, then has Hibernate validate the result with the production
+ * dialect. A migration that assumes a table V1 never had, or drifts from the entities, fails here
+ * as it would on the first deploy.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+
+    private static final int LATEST = 12;
+
+    @TestConfiguration
+    static class LegacyDatabase {
+        // Loads the pre-Flyway schema before the application's own migrate runs
+        @Bean
+        FlywayMigrationStrategy legacyThenMigrate() {
+            return flyway -> {
+                new ResourceDatabasePopulator(new ClassPathResource("db/legacy-schema.sql"))
+                        .execute(flyway.getConfiguration().getDataSource());
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void legacyDatabaseIsBaselinedAtV1AndMigratedToTheEntities() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertEquals(CoreMigrationType.BASELINE, applied[0].getType());
+        assertEquals("1", applied[0].getVersion().toString());
+        assertEquals(versions(2), Arrays.stream(applied).skip(1).map(info -> info.getVersion().toString()).toList());
+        // Existing rows survive with sensible values in the new columns
+        assertEquals(List.of("READY", "NONE"), jdbcTemplate.queryForList(
+                "SELECT image_status FROM gifts ORDER BY id", String.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT max(version) FROM gifts", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT content_version FROM events", Long.class));
+    }
+
+    @Test
+    void rsvpIdGeneratorStartsPastLegacyIds() {
+        assertEquals(120L + RSVP.ID_ALLOCATION_SIZE + 1, jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE gen_name = 'rsvps'", Long.class));
+    }
+
+    @Test
+    void freshDatabaseRunsEveryMigration() {
+        String url = "jdbc:h2:mem:fresh;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        Flyway fresh = Flyway.configure().dataSource(url, "sa", "").load();
+        fresh.migrate();
+
+        assertEquals(versions(1), Arrays.stream(fresh.info().applied())
+                .filter(info -> info.getVersion() != null)
+                .map(info -> info.getVersion().toString())
+                .toList());
+        assertEquals(RSVP.ID_ALLOCATION_SIZE + 1L, new JdbcTemplate(new DriverManagerDataSource(url, "sa", "")).queryForObject(
+                "SELECT next_val FROM id_generators WHERE gen_name = 'rsvps'", Long.class));
+    }
+
+    @Test
+    void hotQueryIndexesExist() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_schema = 'public'", String.class);
+
+        for (String index : List.of("idx_gifts_event", "idx_gifts_planned_by_event_status", "idx_rsvps_event_status",
+                "idx_events_type_date", "idx_events_creator_name", "idx_events_created_id",
+                "idx_email_outbox_status_next", "idx_image_deletion_status_next",
+                "idx_image_deletion_content_hash")) {
+            assertTrue(indexes.contains(index), () -> index + " missing from " + indexes);
+        }
+    }
+
+    private static List<String> versions(int from) {
+        return IntStream.rangeClosed(from, LATEST).mapToObj(Integer::toString).toList();
+    }
+}
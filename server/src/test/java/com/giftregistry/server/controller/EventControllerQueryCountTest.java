@@ -0,0 +1,199 @@
+package com.giftregistry.server.controller;
+
+import com.giftregistry.server.dto.EventDTO;
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.Gift;
+import com.giftregistry.server.model.User;
+import com.giftregistry.server.service.EmailService;
+import com.giftregistry.server.service.EventKeyCache;
+import com.giftregistry.server.service.EventSearchIndex;
+import com.giftregistry.server.service.EventVersionService;
+import com.giftregistry.server.service.ExportService;
+import com.giftregistry.server.service.ImageService;
+import com.giftregistry.server.service.InvitationJobService;
+import com.giftregistry.server.service.InvitationRenderer;
+import com.giftregistry.server.service.RSVPCounterService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({EventController.class, EventSearchIndex.class, EventKeyCache.class, RSVPCounterService.class,
+        InvitationJobService.class, EventVersionService.class})
+class EventControllerQueryCountTest {
+
+    private static final int EVENT_COUNT = 5;
+
+    @Autowired
+    private EventController eventController;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private InvitationRenderer invitationRenderer;
+
+    @MockitoBean
+    private ImageService imageService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            User creator = new User("creator" + i + "@example.com", "secret");
+            creator.setUsername("creator" + i);
+            entityManager.persist(creator);
+
+            Event event = new Event("Event " + i, LocalDate.now().plusDays(10), creator,
+                    "Description " + i, Event.EventType.BIRTHDAY);
+            entityManager.persist(event);
+
+            for (int j = 0; j < 2; j++) {
+                Gift gift = new Gift("Gift " + i + "-" + j, "Recipient", BigDecimal.TEN, event);
+                gift.setStore("Store");
+                entityManager.persist(gift);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void publicEventsUseConstantStatementCount() {
+        List<EventDTO> dtos = body(eventController.getAllPublicEvents());
+
+        assertEquals(EVENT_COUNT, dtos.size());
+        dtos.forEach(dto -> assertEquals(2, dto.getGiftIds().size()));
+        // One select for events joined with creators, one grouped select for gift ids
+        assertEquals(2, statistics.getPrepareStatementCount());
+        // Rows are projected straight into DTOs, so no Event or User entity is materialised
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void upcomingEventsUseConstantStatementCount() {
+        List<EventDTO> dtos = body(eventController.getUpcomingEvents());
+
+        assertEquals(EVENT_COUNT, dtos.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void categoryEventsUseConstantStatementCount() {
+        List<EventDTO> dtos = body(eventController.getEventsByCategory("birthday"));
+
+        assertEquals(EVENT_COUNT, dtos.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void creatorEventsCarryTheCreatorUsername() {
+        Long creatorId = entityManager.createQuery("SELECT u.id FROM User u WHERE u.username = 'creator3'", Long.class)
+                .getSingleResult();
+        statistics.clear();
+
+        List<EventDTO> dtos = body(eventController.getEventsByCreator(creatorId));
+
+        assertEquals(1, dtos.size());
+        assertEquals("creator3", dtos.get(0).getCreatorUsername());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void publicPagesWalkEventsWithEqualCreatedAtWithoutGapsOrRepeats() {
+        // Ties on created_at are broken by id, so the cursor must carry both
+        entityManager.createQuery("UPDATE Event e SET e.createdAt = :at")
+                .setParameter("at", LocalDateTime.of(2024, 1, 1, 12, 0))
+                .executeUpdate();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        assertEquals(3, walkPublicPages(seen));
+        assertEquals(EVENT_COUNT, seen.size());
+        List<Long> expected = new ArrayList<>(seen);
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void publicPagesContinuePastEventsWithoutCreatedAt() {
+        List<Long> ids = entityManager.createQuery("SELECT e.id FROM Event e ORDER BY e.id", Long.class).getResultList();
+        entityManager.createQuery("UPDATE Event e SET e.createdAt = CASE WHEN e.id IN :undated THEN NULL ELSE :at END")
+                .setParameter("undated", ids.subList(0, 3))
+                .setParameter("at", LocalDateTime.of(2024, 1, 1, 12, 0))
+                .executeUpdate();
+        entityManager.clear();
+
+        // Dated events first, then undated ones; pages of two put a cursor on an undated event
+        List<Long> seen = new ArrayList<>();
+        assertEquals(3, walkPublicPages(seen));
+        assertEquals(List.of(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0)), seen);
+    }
+
+    @Test
+    void publicPageRejectsAMalformedCursor() {
+        assertEquals(400, eventController.getPublicEventsPage("not-a-cursor", 2).getStatusCode().value());
+    }
+
+    // Follows nextCursor in pages of two, adding each event id to seen; returns the page count
+    @SuppressWarnings("unchecked")
+    private int walkPublicPages(List<Long> seen) {
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResponseEntity<?> response = eventController.getPublicEventsPage(cursor, 2);
+            assertEquals(200, response.getStatusCode().value());
+            Map<String, Object> page = (Map<String, Object>) response.getBody();
+            List<EventDTO> events = (List<EventDTO>) page.get("events");
+            events.forEach(dto -> {
+                assertEquals(2, dto.getGiftIds().size());
+                seen.add(dto.getId());
+            });
+            cursor = (String) page.get("nextCursor");
+            pages++;
+        } while (cursor != null);
+        return pages;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<EventDTO> body(ResponseEntity<?> response) {
+        assertEquals(200, response.getStatusCode().value());
+        return (List<EventDTO>) response.getBody();
+    }
+}
@@ -0,0 +1,129 @@
+package com.giftregistry.server.controller;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.Gift;
+import com.giftregistry.server.model.User;
+import com.giftregistry.server.service.EventKeyCache;
+import com.giftregistry.server.service.EventVersionService;
+import com.giftregistry.server.service.ExportService;
+import com.giftregistry.server.service.GiftImageUploader;
+import com.giftregistry.server.service.GiftImportService;
+import com.giftregistry.server.service.ImageDeletionQueue;
+import com.giftregistry.server.service.ImageService;
+import com.giftregistry.server.service.ImageVariantProcessor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({GiftController.class, EventVersionService.class, EventKeyCache.class})
+class GiftControllerConditionalGetTest {
+
+    @Autowired
+    private GiftController giftController;
+
+    @Autowired
+    private EventVersionService eventVersionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private GiftImportService giftImportService;
+
+    @MockitoBean
+    private ImageService imageService;
+
+    @MockitoBean
+    private GiftImageUploader giftImageUploader;
+
+    @MockitoBean
+    private ImageVariantProcessor imageVariantProcessor;
+
+    @MockitoBean
+    private ImageDeletionQueue imageDeletionQueue;
+
+    private Long eventId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User creator = new User("creator@example.com", "secret");
+        creator.setUsername("creator");
+        entityManager.persist(creator);
+        Event event = new Event("Party", LocalDate.now().plusDays(10), creator, "Cake", Event.EventType.BIRTHDAY);
+        entityManager.persist(event);
+        for (int i = 0; i < 3; i++) {
+            Gift gift = new Gift("Gift " + i, "Recipient", BigDecimal.TEN, event);
+            gift.setStore("Store");
+            entityManager.persist(gift);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        eventId = event.getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private ResponseEntity<?> getGifts(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/gifts/event/" + eventId);
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        return giftController.getGiftsByEvent(eventId, new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    void matchingEtagIsNotModifiedWithoutLoadingGifts() {
+        ResponseEntity<?> first = getGifts(null);
+        assertEquals(200, first.getStatusCode().value());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        statistics.clear();
+        ResponseEntity<?> second = getGifts(etag);
+
+        assertEquals(304, second.getStatusCode().value());
+        assertEquals(etag, second.getHeaders().getETag());
+        // Only the version stamp is read
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void giftChangeInvalidatesEtag() {
+        String etag = getGifts(null).getHeaders().getETag();
+
+        eventVersionService.changed(eventId);
+        ResponseEntity<?> after = getGifts(etag);
+
+        assertEquals(200, after.getStatusCode().value());
+        assertNotEquals(etag, after.getHeaders().getETag());
+    }
+}
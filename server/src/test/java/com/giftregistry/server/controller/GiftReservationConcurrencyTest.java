@@ -0,0 +1,245 @@
+package com.giftregistry.server.controller;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.Gift;
+import com.giftregistry.server.model.User;
+import com.giftregistry.server.repository.EventRepository;
+import com.giftregistry.server.repository.GiftRepository;
+import com.giftregistry.server.repository.UserRepository;
+import com.giftregistry.server.service.EventKeyCache;
+import com.giftregistry.server.service.EventVersionService;
+import com.giftregistry.server.service.ExportService;
+import com.giftregistry.server.service.GiftImageUploader;
+import com.giftregistry.server.service.GiftImportService;
+import com.giftregistry.server.service.ImageDeletionQueue;
+import com.giftregistry.server.service.ImageService;
+import com.giftregistry.server.service.ImageVariantProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many guests race for the same gifts through the real endpoints and database. Runs outside a
+ * test transaction so every call commits on its own connection, as it would in production.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({GiftController.class, EventVersionService.class, EventKeyCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GiftReservationConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GiftReservationConcurrencyTest.class);
+
+    private static final int GIFTS = 20;
+    private static final int GUESTS = 16;
+
+    @Autowired
+    private GiftController giftController;
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private GiftImportService giftImportService;
+
+    @MockitoBean
+    private ImageService imageService;
+
+    @MockitoBean
+    private GiftImageUploader giftImageUploader;
+
+    @MockitoBean
+    private ImageVariantProcessor imageVariantProcessor;
+
+    @MockitoBean
+    private ImageDeletionQueue imageDeletionQueue;
+
+    private final List<Long> giftIds = new ArrayList<>();
+    private final List<Long> guestIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User creator = new User("creator@example.com", "secret");
+        creator.setUsername("creator");
+        creator = userRepository.save(creator);
+        Event event = eventRepository.save(
+                new Event("Party", LocalDate.now().plusDays(10), creator, "Cake", Event.EventType.BIRTHDAY));
+        for (int i = 0; i < GIFTS; i++) {
+            Gift gift = new Gift("Gift " + i, "Recipient", BigDecimal.TEN, event);
+            gift.setStore("Store");
+            giftIds.add(giftRepository.save(gift).getId());
+        }
+        for (int i = 0; i < GUESTS; i++) {
+            User guest = new User("guest" + i + "@example.com", "secret");
+            guest.setUsername("guest" + i);
+            guestIds.add(userRepository.save(guest).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        giftRepository.deleteAll();
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void eachGiftIsReservedByExactlyOneGuest() throws Exception {
+        Map<Long, List<Long>> winners = new ConcurrentHashMap<>();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        long elapsed = race(guestIndex -> {
+            Long guestId = guestIds.get(guestIndex);
+            List<Long> order = new ArrayList<>(giftIds);
+            Collections.shuffle(order, new Random(guestIndex));
+            for (Long giftId : order) {
+                ResponseEntity<?> response = giftController.reserveGift(giftId, Map.of("userId", guestId));
+                if (response.getStatusCode().value() == 200) {
+                    winners.computeIfAbsent(giftId, k -> Collections.synchronizedList(new ArrayList<>())).add(guestId);
+                } else {
+                    assertEquals(409, response.getStatusCode().value());
+                    conflicts.incrementAndGet();
+                }
+            }
+        });
+
+        for (Long giftId : giftIds) {
+            List<Long> giftWinners = winners.get(giftId);
+            assertEquals(1, giftWinners.size(), "gift " + giftId + " reserved by " + giftWinners);
+            Gift stored = giftRepository.findById(giftId).orElseThrow();
+            assertEquals(giftWinners.get(0), GiftController.mapGiftToDTO(stored).getReservedById());
+            assertEquals(1, stored.getVersion());
+        }
+        assertEquals(GIFTS * (GUESTS - 1), conflicts.get());
+        report("reserve", GIFTS * GUESTS, elapsed);
+    }
+
+    @Test
+    void onlyTheReservingGuestCanPurchase() throws Exception {
+        Long owner = guestIds.get(0);
+        for (Long giftId : giftIds) {
+            assertEquals(200, giftController.reserveGift(giftId, Map.of("userId", owner)).getStatusCode().value());
+        }
+        AtomicInteger purchases = new AtomicInteger();
+
+        long elapsed = race(guestIndex -> {
+            Long guestId = guestIds.get(guestIndex);
+            for (Long giftId : giftIds) {
+                ResponseEntity<?> response = giftController.purchaseGift(giftId, Map.of("userId", guestId));
+                if (response.getStatusCode().value() == 200) {
+                    assertEquals(owner, guestId);
+                    purchases.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(GIFTS, purchases.get());
+        giftRepository.findAllById(giftIds)
+                .forEach(gift -> assertEquals(Gift.GiftStatus.PURCHASED, gift.getStatus()));
+        report("purchase", GIFTS * GUESTS, elapsed);
+    }
+
+    @Test
+    void anonymousPurchaseSucceedsOnce() throws Exception {
+        AtomicInteger purchases = new AtomicInteger();
+
+        race(guestIndex -> {
+            for (Long giftId : giftIds) {
+                if (giftController.purchaseGift(giftId, null).getStatusCode().value() == 200) {
+                    purchases.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(GIFTS, purchases.get());
+        assertTrue(giftRepository.findAllById(giftIds).stream().allMatch(gift -> gift.getVersion() == 1));
+    }
+
+    @Test
+    void anonymousCallerCannotPurchaseAReservedGift() throws Exception {
+        Long owner = guestIds.get(0);
+        Long reserved = giftIds.get(0);
+        assertEquals(200, giftController.reserveGift(reserved, Map.of("userId", owner)).getStatusCode().value());
+        AtomicInteger purchases = new AtomicInteger();
+
+        race(guestIndex -> {
+            if (giftController.purchaseGift(reserved, null).getStatusCode().value() == 200) {
+                purchases.incrementAndGet();
+            }
+        });
+
+        assertEquals(0, purchases.get());
+        assertEquals(Gift.GiftStatus.PLANNED, giftRepository.findById(reserved).orElseThrow().getStatus());
+        // The reserving guest can still buy it
+        assertEquals(200, giftController.purchaseGift(reserved, Map.of("userId", owner)).getStatusCode().value());
+    }
+
+    private interface GuestTask {
+        void run(int guestIndex) throws Exception;
+    }
+
+    // Starts every guest at once and returns the wall time in nanoseconds
+    private long race(GuestTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(GUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < GUESTS; i++) {
+                int guestIndex = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run(guestIndex);
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void report(String operation, int calls, long nanos) {
+        log.info("{}: {} contended calls by {} guests in {} ms ({} calls/s)",
+                operation, calls, GUESTS, nanos / 1_000_000, Math.round(calls / (nanos / 1e9)));
+    }
+}
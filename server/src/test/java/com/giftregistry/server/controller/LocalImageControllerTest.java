@@ -0,0 +1,108 @@
+package com.giftregistry.server.controller;
+
+import com.giftregistry.server.service.ImageStore;
+import com.giftregistry.server.service.LocalImageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalImageControllerTest {
+
+    private static final String HASH = HexFormat.of().formatHex(new byte[32]);
+
+    @TempDir
+    Path tempDir;
+
+    private LocalImageController controller;
+    private byte[] content;
+    private String folder;
+    private String file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LocalImageStore store = new LocalImageStore(tempDir.resolve("store").toString(), "http://localhost/api/images");
+        controller = new LocalImageController();
+        ReflectionTestUtils.setField(controller, "localImageStore", store);
+
+        content = new byte[1000];
+        content[0] = (byte) 0xFF;
+        content[1] = (byte) 0xD8;
+        content[2] = (byte) 0xFF;
+        for (int i = 3; i < content.length; i++) content[i] = (byte) i;
+        Path source = Files.write(tempDir.resolve("upload"), content);
+        ImageStore.StoredFile stored = store.store(source, HASH);
+        folder = stored.key().substring(0, stored.key().indexOf('/'));
+        file = stored.key().substring(stored.key().indexOf('/') + 1);
+    }
+
+    private MockHttpServletResponse get(String... headers) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/images/" + folder + "/" + file);
+        for (int i = 0; i < headers.length; i += 2) request.addHeader(headers[i], headers[i + 1]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getImage(folder, file, request, response);
+        return response;
+    }
+
+    @Test
+    void servesWholeFileWithStrongEtag() throws Exception {
+        MockHttpServletResponse response = get();
+        assertEquals(200, response.getStatus());
+        assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+        assertEquals("image/jpeg", response.getContentType());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        MockHttpServletResponse response = get("If-None-Match", "\"other\", W/\"" + HASH + "\"");
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void servesByteRanges() throws Exception {
+        MockHttpServletResponse response = get("Range", "bytes=100-199");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 100-199/1000", response.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 200), response.getContentAsByteArray());
+
+        MockHttpServletResponse suffix = get("Range", "bytes=-10");
+        assertEquals("bytes 990-999/1000", suffix.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(content, 990, 1000), suffix.getContentAsByteArray());
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        MockHttpServletResponse response = get("Range", "bytes=5000-");
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */1000", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void staleIfRangeReturnsWholeFile() throws Exception {
+        MockHttpServletResponse response = get("Range", "bytes=0-9", "If-Range", "\"stale\"");
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("Content-Range"));
+        assertEquals(content.length, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void rejectsKeysOutsideTheStore() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/images/../secret");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getImage("..", "secret.jpg", request, response);
+        assertEquals(404, response.getStatus());
+    }
+}
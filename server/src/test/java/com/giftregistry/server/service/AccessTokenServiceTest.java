@@ -0,0 +1,54 @@
+package com.giftregistry.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
+
+    private final AccessTokenService tokens = at(NOW);
+
+    @Test
+    void issuedTokenVerifiesToItsUser() {
+        AccessTokenService.AccessToken token = tokens.issue(42L);
+
+        assertEquals(Optional.of(42L), tokens.verify(token.value()));
+        assertEquals(NOW.plus(Duration.ofHours(1)), token.expiresAt());
+    }
+
+    @Test
+    void tamperedOrForeignTokensAreRejected() {
+        String token = tokens.issue(42L).value();
+        String otherUser = token.replace("v1.42.", "v1.43.");
+        String otherKey = new AccessTokenService("fedcba9876543210fedcba9876543210", Duration.ofHours(1),
+                Clock.fixed(NOW, ZoneOffset.UTC)).issue(42L).value();
+
+        assertTrue(tokens.verify(otherUser).isEmpty());
+        assertTrue(tokens.verify(otherKey).isEmpty());
+        assertTrue(tokens.verify(token.substring(0, token.length() - 1)).isEmpty());
+        assertTrue(tokens.verify("not-a-token").isEmpty());
+        assertTrue(tokens.verify(null).isEmpty());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = tokens.issue(42L).value();
+
+        assertTrue(at(NOW.plus(Duration.ofMinutes(59))).verify(token).isPresent());
+        assertTrue(at(NOW.plus(Duration.ofHours(1))).verify(token).isEmpty());
+    }
+
+    private static AccessTokenService at(Instant instant) {
+        return new AccessTokenService(SECRET, Duration.ofHours(1), Clock.fixed(instant, ZoneOffset.UTC));
+    }
+}
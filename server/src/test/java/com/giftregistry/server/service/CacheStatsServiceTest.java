@@ -0,0 +1,137 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.User;
+import com.giftregistry.server.repository.EventRepository;
+import com.giftregistry.server.repository.UserRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs outside a test transaction: entries only reach the second-level cache once a transaction commits.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CacheStatsService.class, EventVersionService.class, EventKeyCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheStatsServiceTest {
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Autowired
+    private EventVersionService eventVersionService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private Cache cache;
+    private Long creatorId;
+    private Event party;
+    private Event wedding;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        cache = entityManagerFactory.getCache();
+        User creator = new User("creator@example.com", "secret");
+        creator.setUsername("creator");
+        creator.getSocialLinks().put("github", "https://github.com/creator");
+        creatorId = userRepository.save(creator).getId();
+        party = eventRepository.save(new Event("Party", LocalDate.now().plusDays(10), creator, "Cake",
+                Event.EventType.BIRTHDAY));
+        wedding = eventRepository.save(new Event("Wedding", LocalDate.now().plusDays(20), creator, "Vows",
+                Event.EventType.WEDDING));
+        cache.evictAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void secondReadOfAUserAndItsLinksComesFromTheCache() {
+        readSocialLinks();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals("https://github.com/creator", readSocialLinks().get("github"));
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        Map<String, Object> users = region("users");
+        assertEquals(1L, users.get("hits"));
+        assertEquals(0.5, users.get("hitRatio"));
+        assertEquals(1L, region("user-social-links").get("hits"));
+    }
+
+    @Test
+    void eventKeyLookupIsServedFromTheQueryCache() {
+        eventRepository.findByEventKey(party.getEventKey()).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+
+        Event cached = eventRepository.findByEventKey(party.getEventKey()).orElseThrow();
+
+        assertEquals(party.getId(), cached.getId());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1L, region("event-queries").get("hits"));
+    }
+
+    @Test
+    void contentVersionBumpEvictsOnlyThatEvent() {
+        eventRepository.findById(party.getId());
+        eventRepository.findById(wedding.getId());
+        assertTrue(cache.contains(Event.class, party.getId()));
+
+        eventVersionService.changed(party.getId());
+
+        assertFalse(cache.contains(Event.class, party.getId()));
+        assertTrue(cache.contains(Event.class, wedding.getId()));
+        assertEquals(1L, eventVersionService.current(party.getId()).orElseThrow());
+    }
+
+    private Map<String, String> readSocialLinks() {
+        return tx.execute(status -> Map.copyOf(entityManager.find(User.class, creatorId).getSocialLinks()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> region(String name) {
+        return (Map<String, Object>) ((Map<String, Object>) cacheStatsService.stats().get("regions")).get(name);
+    }
+}
@@ -0,0 +1,149 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.OutboxEmail;
+import com.giftregistry.server.repository.OutboxEmailRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.mail.outbox.rate-per-second=0",
+        "app.mail.outbox.max-attempts=3"
+})
+@Import({EmailOutboxService.class, EmailOutboxServiceTest.SmtpConfig.class})
+class EmailOutboxServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @TestConfiguration
+    static class SmtpConfig {
+        @Bean
+        JavaMailSender javaMailSender() {
+            return smtpSender(ServerSetupTest.SMTP.getPort());
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private OutboxEmailRepository outboxRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void drainDeliversPendingMessages() {
+        for (int i = 0; i < 3; i++) {
+            emailOutboxService.enqueue("guest" + i + "@example.com", "Invitation " + i, "<p>Hello " + i + "</p>");
+        }
+
+        emailOutboxService.drain();
+
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        assertEquals(0, outboxRepository.countByStatus(OutboxEmail.OutboxStatus.PENDING));
+        assertEquals(3, outboxRepository.countByStatus(OutboxEmail.OutboxStatus.SENT));
+        // One SMTP connection for the whole window
+        assertEquals(1, meterRegistry.get("smtp.send").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void unreachableServerSchedulesRetryWithBackoff() {
+        ReflectionTestUtils.setField(emailOutboxService, "mailSender", smtpSender(1));
+        OutboxEmail email = emailOutboxService.enqueue("guest@example.com", "Invitation", "<p>Hello</p>");
+
+        emailOutboxService.drain();
+
+        OutboxEmail stored = outboxRepository.findById(email.getId()).orElseThrow();
+        assertEquals(OutboxEmail.OutboxStatus.PENDING, stored.getStatus());
+        assertEquals(1, stored.getAttempts());
+        assertTrue(stored.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(1, meterRegistry.get("smtp.send").tag("outcome", "error").timer().count());
+
+        // Once max attempts are used up the message is parked as FAILED
+        stored.setAttempts(2);
+        stored.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxService.drain();
+        assertEquals(OutboxEmail.OutboxStatus.FAILED, outboxRepository.findById(email.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    // Outside the test transaction, so only what drain itself saved is visible afterwards
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void eachWindowIsSavedAsItIsSentSoACrashLeavesOnlyTheRestLeased() {
+        ReflectionTestUtils.setField(emailOutboxService, "ratePerSecond", 2);
+        JavaMailSender smtp = smtpSender(ServerSetupTest.SMTP.getPort());
+        AtomicInteger windows = new AtomicInteger();
+        // Delivers the first window, then dies the way a redeploy would mid-drain
+        JavaMailSender crashing = mock(JavaMailSender.class);
+        when(crashing.createMimeMessage()).thenAnswer(invocation -> smtp.createMimeMessage());
+        doAnswer(invocation -> {
+            if (windows.incrementAndGet() > 1) {
+                throw new IllegalStateException("shutting down");
+            }
+            smtp.send((MimeMessage[]) invocation.getRawArguments()[0]);
+            return null;
+        }).when(crashing).send(any(MimeMessage[].class));
+        ReflectionTestUtils.setField(emailOutboxService, "mailSender", crashing);
+        for (int i = 0; i < 5; i++) {
+            emailOutboxService.enqueue("guest" + i + "@example.com", "Invitation " + i, "<p>Hello " + i + "</p>");
+        }
+
+        try {
+            assertThrows(IllegalStateException.class, () -> emailOutboxService.drain());
+
+            assertEquals(2, greenMail.getReceivedMessages().length);
+            assertEquals(2, outboxRepository.countByStatus(OutboxEmail.OutboxStatus.SENT));
+            // The unsent rows stay claimed until the lease runs out, so a second drain leaves them alone
+            outboxRepository.findAll().stream()
+                    .filter(email -> email.getStatus() == OutboxEmail.OutboxStatus.PENDING)
+                    .forEach(email -> assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(60))));
+            ReflectionTestUtils.setField(emailOutboxService, "mailSender", smtp);
+            emailOutboxService.drain();
+            assertEquals(2, greenMail.getReceivedMessages().length);
+        } finally {
+            outboxRepository.deleteAll();
+            ReflectionTestUtils.setField(emailOutboxService, "ratePerSecond", 0);
+            ReflectionTestUtils.setField(emailOutboxService, "mailSender", smtp);
+        }
+    }
+
+    private static JavaMailSender smtpSender(int port) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(port);
+        return sender;
+    }
+}
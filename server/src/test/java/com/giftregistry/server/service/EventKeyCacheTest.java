@@ -0,0 +1,82 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.dto.EventDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EventKeyCacheTest {
+
+    @Test
+    void fillThatRacedAnInvalidationIsDropped() {
+        EventKeyCache cache = new EventKeyCache(10, 300);
+
+        // Reader takes its ticket and reads version 1, then the event is updated before it puts
+        long ticket = cache.fillTicket();
+        cache.invalidate(1L);
+        cache.put("KEY1", dto(1L), 1, ticket);
+
+        assertNull(cache.get("KEY1"));
+        assertEquals(1L, cache.stats().get("staleFills"));
+
+        // A reader that started after the invalidation fills normally
+        cache.put("KEY1", dto(1L), 2, cache.fillTicket());
+        assertEquals(2, cache.get("KEY1").version());
+    }
+
+    @Test
+    void invalidatingOneEventDoesNotBlockFillsOfAnother() {
+        EventKeyCache cache = new EventKeyCache(10, 300);
+
+        long ticket = cache.fillTicket();
+        cache.invalidate(2L);
+        cache.put("KEY1", dto(1L), 1, ticket);
+
+        assertNotNull(cache.get("KEY1"));
+    }
+
+    @Test
+    void olderVersionNeverReplacesANewerEntry() {
+        EventKeyCache cache = new EventKeyCache(10, 300);
+
+        cache.put("KEY1", dto(1L), 3, cache.fillTicket());
+        cache.put("KEY1", dto(1L), 2, cache.fillTicket());
+
+        assertEquals(3, cache.get("KEY1").version());
+    }
+
+    @Test
+    void forgottenInvalidationStampsStillRejectOlderFills() {
+        EventKeyCache cache = new EventKeyCache(2, 300);
+
+        long ticket = cache.fillTicket();
+        // Three invalidations with room for two stamps: event 1's stamp is dropped
+        cache.invalidate(1L);
+        cache.invalidate(2L);
+        cache.invalidate(3L);
+        cache.put("KEY1", dto(1L), 1, ticket);
+
+        assertNull(cache.get("KEY1"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedPastMaxSize() {
+        EventKeyCache cache = new EventKeyCache(2, 300);
+        cache.put("KEY1", dto(1L), 1, cache.fillTicket());
+        cache.put("KEY2", dto(2L), 1, cache.fillTicket());
+        cache.get("KEY1");
+        cache.put("KEY3", dto(3L), 1, cache.fillTicket());
+
+        assertNotNull(cache.get("KEY1"));
+        assertNull(cache.get("KEY2"));
+        assertEquals(1L, cache.stats().get("evictions"));
+    }
+
+    private static EventDTO dto(Long id) {
+        EventDTO dto = new EventDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
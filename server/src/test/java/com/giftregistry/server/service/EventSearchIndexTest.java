@@ -0,0 +1,54 @@
+package com.giftregistry.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventSearchIndexTest {
+
+    @Test
+    void nameAndWordPrefixMatchesRankAboveDescriptionMatches() {
+        EventSearchIndex index = new EventSearchIndex();
+        index.index(1L, "Office lunch", "Celebrating the garden party season");
+        index.index(2L, "Garden party", "Bring a dish");
+        index.index(3L, "Wedding", "Reception in the rose garden after the party");
+        index.index(4L, "Bakery opening", "Fresh bread");
+
+        assertEquals(List.of(2L, 3L, 1L), index.search("Garden PARTY", 0, 10));
+        // Every word has to match somewhere
+        assertEquals(List.of(2L), index.search("garden dish", 0, 10));
+        assertEquals(List.of(), index.search("garden bread", 0, 10));
+        // Terms match anywhere inside a word, not only at its start
+        assertEquals(List.of(2L, 3L, 1L), index.search("arde", 0, 10));
+        assertEquals(List.of(1L), index.search("garden party", 1, 2));
+    }
+
+    @Test
+    void singleCharacterTermsAreIgnored() {
+        EventSearchIndex index = new EventSearchIndex();
+        index.index(1L, "Garden party", "a b c");
+        index.index(2L, "Book club", "Monthly");
+
+        assertEquals(List.of(), index.search("a", 0, 10));
+        assertEquals(List.of(1L), index.search("a party", 0, 10));
+    }
+
+    @Test
+    void indexAndRemoveKeepPostingsCurrent() {
+        EventSearchIndex index = new EventSearchIndex();
+        index.index(1L, "Garden party", "Outdoors");
+        index.index(2L, "Book club", "Monthly");
+
+        index.index(1L, "Housewarming", "New flat");
+        assertEquals(List.of(), index.search("garden", 0, 10));
+        assertEquals(List.of(1L), index.search("housewarming", 0, 10));
+
+        index.remove(2L);
+        assertEquals(List.of(), index.search("book", 0, 10));
+        assertEquals(1, index.size());
+        assertTrue(index.search("flat", 0, 10).contains(1L));
+    }
+}
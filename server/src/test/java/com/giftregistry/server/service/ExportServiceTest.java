@@ -0,0 +1,134 @@
+package com.giftregistry.server.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.Gift;
+import com.giftregistry.server.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.export.fetch-size=100"
+})
+@Import(ExportService.class)
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User creator;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        creator = new User("creator@example.com", "secret");
+        creator.setUsername("creator");
+        entityManager.persist(creator);
+        event = new Event("Party", LocalDate.of(2030, 5, 1), creator, "Cake", Event.EventType.BIRTHDAY);
+        entityManager.persist(event);
+        Gift gift = new Gift("Mug, \"large\"\nblue", "Sam", new BigDecimal("12.50"), event);
+        gift.setStore("Store");
+        entityManager.persist(gift);
+
+        // Someone else's registry, which must never appear in this creator's exports
+        User other = new User("other@example.com", "secret");
+        other.setUsername("other");
+        entityManager.persist(other);
+        Event otherEvent = new Event("Wedding", LocalDate.of(2030, 6, 1), other, "Vows", Event.EventType.WEDDING);
+        entityManager.persist(otherEvent);
+        Gift otherGift = new Gift("Toaster", "Alex", BigDecimal.TEN, otherEvent);
+        otherGift.setStore("Store");
+        entityManager.persist(otherGift);
+        entityManager.flush();
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.write(ExportService.Dataset.GIFTS, ExportService.Format.NDJSON, creator.getId(), event.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, rows);
+        assertEquals(1, lines.length);
+        JsonNode gift = new ObjectMapper().readTree(lines[0]);
+        assertEquals("Mug, \"large\"\nblue", gift.get("name").asText());
+        assertEquals(event.getId(), gift.get("eventId").asLong());
+        assertTrue(lines[0].contains("\"price\":12.50"));
+        assertEquals("PLANNED", gift.get("status").asText());
+        assertTrue(gift.get("plannedById").isNull());
+    }
+
+    @Test
+    void csvQuotesFieldsThatNeedIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.write(ExportService.Dataset.EVENTS, ExportService.Format.CSV, creator.getId(), null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertEquals("id,name,date,type,location,description,creatorId,createdAt,updatedAt", lines[0]);
+        assertTrue(lines[1].startsWith(event.getId() + ",Party,2030-05-01,BIRTHDAY,"));
+        assertEquals("\"Mug, \"\"large\"\"\nblue\"", ExportService.escapeCsv("Mug, \"large\"\nblue"));
+    }
+
+    @Test
+    void exportsEveryRowAcrossManyFetches() throws Exception {
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            batch.add(new Object[]{event.getId(), "guest" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rsvps (id, event_id, guest_email, status) VALUES " +
+                "((SELECT COALESCE(MAX(id), 0) + 1 FROM rsvps), ?, ?, 'PENDING')", batch);
+        LineCounter counter = new LineCounter();
+
+        long rows = exportService.write(ExportService.Dataset.RSVPS, ExportService.Format.NDJSON, creator.getId(), event.getId(), counter);
+
+        assertEquals(5000, rows);
+        assertEquals(5000, counter.lines);
+    }
+
+    @Test
+    void giftExportCoversOnlyTheCallersEvents() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.write(ExportService.Dataset.GIFTS, ExportService.Format.CSV, creator.getId(), null, out);
+
+        assertEquals(1, rows);
+        assertFalse(out.toString(StandardCharsets.UTF_8).contains("Toaster"));
+    }
+
+    private static final class LineCounter extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') lines++;
+        }
+    }
+}
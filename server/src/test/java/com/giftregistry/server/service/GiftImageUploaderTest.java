@@ -0,0 +1,103 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.Gift;
+import com.giftregistry.server.model.User;
+import com.giftregistry.server.repository.GiftRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(GiftImageUploader.class)
+class GiftImageUploaderTest {
+
+    private static final Path STAGED = Path.of("does-not-exist.upload");
+
+    @Autowired
+    private GiftImageUploader giftImageUploader;
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ImageService imageService;
+
+    @MockitoBean
+    private EventVersionService eventVersionService;
+
+    @MockitoBean(name = "imageUploadExecutor")
+    private TaskExecutor imageUploadExecutor;
+
+    private Gift gift;
+
+    @BeforeEach
+    void setUp() {
+        User creator = new User("creator@example.com", "secret");
+        creator.setUsername("creator");
+        entityManager.persist(creator);
+        Event event = new Event("Party", LocalDate.now().plusDays(5), creator, "Description", Event.EventType.BIRTHDAY);
+        entityManager.persist(event);
+        gift = new Gift("Lamp", "Sam", BigDecimal.TEN, event);
+        gift.setStore("Store");
+        gift.setImage("https://img/original.jpg");
+        gift.setCardImage("https://img/original-card.jpg");
+        gift.setThumbnailImage("https://img/original-thumb.jpg");
+        entityManager.persist(gift);
+        entityManager.flush();
+    }
+
+    @Test
+    void overlappingUploadsEachReleaseTheImageTheyReplaced() throws Exception {
+        // Two image updates were accepted while the gift still showed the original image
+        when(imageService.uploadVariants(any()))
+                .thenReturn(new ImageService.UploadedImage("https://img/a.jpg", "https://img/a-card.jpg", "https://img/a-thumb.jpg"))
+                .thenReturn(new ImageService.UploadedImage("https://img/b.jpg", "https://img/b-card.jpg", "https://img/b-thumb.jpg"));
+
+        giftImageUploader.upload(gift.getId(), null, STAGED);
+        giftImageUploader.upload(gift.getId(), null, STAGED);
+
+        verify(imageService, times(1)).deleteImage("https://img/original.jpg");
+        verify(imageService, times(1)).deleteImage("https://img/original-card.jpg");
+        verify(imageService, times(1)).deleteImage("https://img/a.jpg");
+        verify(imageService, times(1)).deleteImage("https://img/a-thumb.jpg");
+        verify(imageService, never()).deleteImage("https://img/b.jpg");
+        entityManager.clear();
+        Gift stored = giftRepository.findById(gift.getId()).orElseThrow();
+        assertEquals("https://img/b.jpg", stored.getImage());
+        assertEquals(Gift.ImageStatus.READY, stored.getImageStatus());
+    }
+
+    @Test
+    void uploadForADeletedGiftReleasesOnlyItsOwnImage() throws Exception {
+        when(imageService.uploadVariants(any()))
+                .thenReturn(new ImageService.UploadedImage("https://img/a.jpg", null, null));
+        giftRepository.deleteById(gift.getId());
+        giftRepository.flush();
+
+        giftImageUploader.upload(gift.getId(), null, STAGED);
+
+        verify(imageService).deleteImage("https://img/a.jpg");
+        verify(imageService, never()).deleteImage("https://img/original.jpg");
+        verify(imageService, times(1)).deleteImage(any());
+    }
+}
@@ -0,0 +1,183 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.Gift;
+import com.giftregistry.server.model.User;
+import com.giftregistry.server.model.StoredImage;
+import com.giftregistry.server.repository.GiftRepository;
+import com.giftregistry.server.repository.StoredImageRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.gifts.import.max-rows=1000"
+})
+@Import({GiftImportService.class, ImageService.class, GiftImportServiceTest.StoreConfig.class})
+class GiftImportServiceTest {
+
+    private static final String STORE_URL = "http://localhost/api/images/gift-registry/";
+
+    @TestConfiguration
+    static class StoreConfig {
+        @Bean
+        LocalImageStore localImageStore() throws IOException {
+            return new LocalImageStore(Files.createTempDirectory("gift-import-test").toString(),
+                    "http://localhost/api/images");
+        }
+    }
+
+    @Autowired
+    private GiftImportService giftImportService;
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ImageDeletionQueue imageDeletionQueue;
+
+    @MockitoBean
+    private ImageVariantProcessor imageVariantProcessor;
+
+    private Long eventId;
+    private Long plannerId;
+
+    @BeforeEach
+    void setUp() {
+        User creator = new User("creator@example.com", "secret");
+        creator.setUsername("creator");
+        entityManager.persist(creator);
+        Event event = new Event("Party", LocalDate.now().plusDays(10), creator, "Cake", Event.EventType.BIRTHDAY);
+        entityManager.persist(event);
+        entityManager.flush();
+        eventId = event.getId();
+        plannerId = creator.getId();
+    }
+
+    @Test
+    void csvRowsAreInsertedWithQuotedFields() {
+        String csv = "name,recipient,price,store,description,imageUrl\r\n" +
+                "\"Mug, large\",Sam,12.50,Shop,\"Says \"\"hi\"\"\nover two lines\",https://img.example.com/mug.jpg\r\n" +
+                "Book,Alex,20,Shop,,\r\n";
+
+        GiftImportService.ImportResult result = giftImportService.importCsv(eventId, plannerId, csv);
+
+        assertTrue(result.ok(), () -> result.errors().toString());
+        assertEquals(2, result.imported());
+        entityManager.clear();
+        List<Gift> gifts = giftRepository.findByEventId(eventId);
+        assertEquals(2, gifts.size());
+        Gift mug = gifts.stream().filter(g -> g.getName().equals("Mug, large")).findFirst().orElseThrow();
+        assertEquals("Says \"hi\"\nover two lines", mug.getDescription());
+        assertEquals(0, new BigDecimal("12.50").compareTo(mug.getPrice()));
+        assertEquals(Gift.ImageStatus.READY, mug.getImageStatus());
+        assertEquals(Gift.GiftStatus.PLANNED, mug.getStatus());
+        assertEquals(plannerId, mug.getPlannedBy().getId());
+        assertEquals(0, mug.getVersion());
+        Gift book = gifts.stream().filter(g -> g.getName().equals("Book")).findFirst().orElseThrow();
+        assertEquals(Gift.ImageStatus.NONE, book.getImageStatus());
+    }
+
+    @Test
+    void anInvalidRowRejectsTheWholeBatch() {
+        String json = "[" +
+                "{\"name\": \"Mug\", \"recipient\": \"Sam\", \"price\": 10, \"store\": \"Shop\"}," +
+                "{\"name\": \"\", \"recipient\": \"Sam\", \"price\": \"cheap\", \"store\": \"Shop\"}," +
+                "{\"name\": \"Lamp\", \"recipient\": \"Sam\", \"price\": 5, \"store\": \"Shop\", \"imageUrl\": \"ftp://x\"}" +
+                "]";
+
+        GiftImportService.ImportResult result = giftImportService.importJson(eventId, plannerId, json);
+
+        assertFalse(result.ok());
+        assertEquals(List.of(
+                new GiftImportService.RowError(2, "name", "is required"),
+                new GiftImportService.RowError(2, "price", "is not a number"),
+                new GiftImportService.RowError(3, "imageUrl", "must be an http(s) URL")), result.errors());
+        assertEquals(0, giftRepository.findByEventId(eventId).size());
+    }
+
+    @Test
+    void importsAThousandGifts() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"name\":\"Gift ").append(i).append("\",\"recipient\":\"Sam\",\"price\":\"9.99\",\"store\":\"Shop\"}");
+        }
+        json.append(']');
+
+        GiftImportService.ImportResult result = giftImportService.importJson(eventId, plannerId, json.toString());
+
+        assertEquals(1000, result.imported());
+        assertEquals(1000, giftRepository.findByEventId(eventId).size());
+    }
+
+    @Test
+    void deletingAnImportedGiftLeavesTheSourceGiftsImage() {
+        String hash = "a".repeat(64);
+        String url = STORE_URL + hash + ".jpg";
+        // The source gift's upload, still referenced by that gift
+        StoredImage stored = storedImageRepository.save(new StoredImage(hash, "gift-registry/" + hash + ".jpg", url));
+        String json = "[{\"name\": \"Lamp\", \"recipient\": \"Sam\", \"price\": 5, \"store\": \"Shop\", " +
+                "\"imageUrl\": \"" + url + "\"}]";
+
+        assertTrue(giftImportService.importJson(eventId, plannerId, json).ok());
+        entityManager.clear();
+        Gift imported = giftRepository.findByEventId(eventId).get(0);
+        assertFalse(imported.isImageExternal());
+        assertEquals(2, storedImageRepository.findById(stored.getId()).orElseThrow().getRefCount());
+
+        giftRepository.deleteById(imported.getId());
+        imported.getImageUrls().forEach(imageService::deleteImage);
+
+        entityManager.clear();
+        assertEquals(1, storedImageRepository.findById(stored.getId()).orElseThrow().getRefCount());
+        verify(imageDeletionQueue, never()).enqueue(anyString(), any());
+    }
+
+    @Test
+    void aStoreUrlWithNoStoredImageIsImportedAsExternal() {
+        // Looks like one of ours, but predates hashing or has already been freed
+        String url = STORE_URL + "b".repeat(64) + ".jpg";
+        String json = "[{\"name\": \"Lamp\", \"recipient\": \"Sam\", \"price\": 5, \"store\": \"Shop\", " +
+                "\"imageUrl\": \"" + url + "\"}]";
+
+        assertTrue(giftImportService.importJson(eventId, plannerId, json).ok());
+        entityManager.clear();
+        Gift imported = giftRepository.findByEventId(eventId).get(0);
+        assertTrue(imported.isImageExternal());
+        assertEquals(url, imported.getImage());
+
+        imported.getImageUrls().forEach(imageService::deleteImage);
+        verify(imageDeletionQueue, never()).enqueue(anyString(), any());
+    }
+}
@@ -0,0 +1,158 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.ImageDeletion;
+import com.giftregistry.server.model.StoredImage;
+import com.giftregistry.server.repository.ImageDeletionRepository;
+import com.giftregistry.server.repository.StoredImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.images.deletion.batch-size=100",
+        "app.images.deletion.max-attempts=3",
+        "app.images.deletion.backoff-seconds=60"
+})
+@Import({ImageDeletionQueue.class, ImageDeletionQueueTest.StoreConfig.class})
+class ImageDeletionQueueTest {
+
+    @TestConfiguration
+    static class StoreConfig {
+        @Bean
+        StubImageStore stubImageStore() {
+            return new StubImageStore();
+        }
+    }
+
+    // Records each delete call and refuses the keys it is told to keep
+    static class StubImageStore implements ImageStore {
+        final List<List<String>> calls = new ArrayList<>();
+        final Set<String> refused = new HashSet<>();
+
+        @Override
+        public StoredFile store(Path file, String contentHash) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String keyOf(String url) {
+            return url;
+        }
+
+        @Override
+        public Set<String> delete(Collection<String> keys) throws IOException {
+            calls.add(List.copyOf(keys));
+            return keys.stream().filter(key -> !refused.contains(key)).collect(Collectors.toSet());
+        }
+    }
+
+    @Autowired
+    private ImageDeletionQueue imageDeletionQueue;
+
+    @Autowired
+    private ImageDeletionRepository deletionRepository;
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    @Autowired
+    private StubImageStore imageStore;
+
+    @BeforeEach
+    void setUp() {
+        imageStore.calls.clear();
+        imageStore.refused.clear();
+    }
+
+    @Test
+    void dueKeysGoToTheStoreInOneCallAndReusedOnesAreSkipped() {
+        for (int i = 0; i < 5; i++) {
+            imageDeletionQueue.enqueue("gift-registry/image-" + i, "hash-" + i);
+        }
+        // Uploaded again after it was queued, so it is back in use
+        storedImageRepository.save(new StoredImage("hash-2", "gift-registry/image-2", "https://img/image-2.jpg"));
+
+        imageDeletionQueue.drain();
+
+        assertEquals(1, imageStore.calls.size());
+        assertEquals(List.of("gift-registry/image-0", "gift-registry/image-1",
+                "gift-registry/image-3", "gift-registry/image-4"), imageStore.calls.get(0));
+        assertEquals(0, deletionRepository.count());
+        assertEquals(1L, imageDeletionQueue.stats().get("skippedTotal"));
+        assertEquals(4L, imageDeletionQueue.stats().get("deletedTotal"));
+    }
+
+    @Test
+    void refusedKeysBackOffExponentiallyAndFailAfterMaxAttempts() {
+        imageStore.refused.add("gift-registry/stuck");
+        ImageDeletion deletion = imageDeletionQueue.enqueue("gift-registry/stuck", null);
+
+        imageDeletionQueue.drain();
+        ImageDeletion stored = deletionRepository.findById(deletion.getId()).orElseThrow();
+        assertEquals(1, stored.getAttempts());
+        assertBetween(LocalDateTime.now().plusSeconds(50), LocalDateTime.now().plusSeconds(70), stored.getNextAttemptAt());
+
+        // Not due yet, so a second drain leaves it alone
+        imageDeletionQueue.drain();
+        assertEquals(1, imageStore.calls.size());
+
+        stored.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        imageDeletionQueue.drain();
+        stored = deletionRepository.findById(deletion.getId()).orElseThrow();
+        assertEquals(2, stored.getAttempts());
+        assertBetween(LocalDateTime.now().plusSeconds(110), LocalDateTime.now().plusSeconds(130), stored.getNextAttemptAt());
+
+        stored.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        imageDeletionQueue.drain();
+        stored = deletionRepository.findById(deletion.getId()).orElseThrow();
+        assertEquals(3, stored.getAttempts());
+        assertEquals(ImageDeletion.DeletionStatus.FAILED, stored.getStatus());
+        assertEquals("store did not delete gift-registry/stuck", stored.getLastError());
+
+        // Parked rows are never picked up again
+        stored.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        imageDeletionQueue.drain();
+        assertEquals(3, imageStore.calls.size());
+        assertEquals(1L, imageDeletionQueue.stats().get("failed"));
+    }
+
+    @Test
+    void cancelledDeletionsNeverReachTheStore() {
+        imageDeletionQueue.enqueue("gift-registry/image-0", "hash-0");
+        imageDeletionQueue.enqueue("gift-registry/image-1", "hash-1");
+
+        imageDeletionQueue.cancel("hash-0");
+        imageDeletionQueue.drain();
+
+        assertEquals(List.of(List.of("gift-registry/image-1")), imageStore.calls);
+    }
+
+    @Test
+    void nothingDueMeansNoStoreCall() {
+        imageDeletionQueue.drain();
+
+        assertTrue(imageStore.calls.isEmpty());
+    }
+
+    private static void assertBetween(LocalDateTime from, LocalDateTime to, LocalDateTime actual) {
+        assertTrue(actual.isAfter(from) && actual.isBefore(to), actual + " not between " + from + " and " + to);
+    }
+}
@@ -0,0 +1,128 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.StoredImage;
+import com.giftregistry.server.repository.StoredImageRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ImageService.class, ImageServiceTest.StoreConfig.class})
+class ImageServiceTest {
+
+    @TestConfiguration
+    static class StoreConfig {
+        @Bean
+        LocalImageStore localImageStore() throws IOException {
+            return new LocalImageStore(Files.createTempDirectory("image-service-test").toString(),
+                    "http://localhost/api/images");
+        }
+    }
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ImageDeletionQueue imageDeletionQueue;
+
+    @MockitoBean
+    private ImageVariantProcessor imageVariantProcessor;
+
+    @Test
+    void sameContentUploadedTwiceSharesOneStoredImage() throws Exception {
+        String first = imageService.uploadImage(upload("a.jpg", 1));
+        String second = imageService.uploadImage(upload("b.jpg", 1));
+        String other = imageService.uploadImage(upload("c.jpg", 2));
+
+        assertEquals(first, second);
+        assertFalse(first.equals(other));
+        assertEquals(2, storedImageRepository.count());
+        assertEquals(2, storedImageOf(first).getRefCount());
+    }
+
+    @Test
+    void storageIsQueuedForDeletionOnlyWhenTheLastReferenceGoes() throws Exception {
+        String url = imageService.uploadImage(upload("a.jpg", 1));
+        imageService.uploadImage(upload("b.jpg", 1));
+        String key = storedImageOf(url).getPublicId();
+        String hash = storedImageOf(url).getContentHash();
+
+        // Another gift still shares the image
+        assertTrue(imageService.deleteImage(url));
+        assertEquals(1, storedImageOf(url).getRefCount());
+        verify(imageDeletionQueue, never()).enqueue(anyString(), any());
+
+        assertTrue(imageService.deleteImage(url));
+        assertTrue(storedImageRepository.findByPublicId(key).isEmpty());
+        verify(imageDeletionQueue).enqueue(key, hash);
+    }
+
+    @Test
+    void storingContentAgainCancelsItsQueuedDeletionFirst() throws Exception {
+        String url = imageService.uploadImage(upload("a.jpg", 1));
+        String hash = storedImageOf(url).getContentHash();
+        imageService.deleteImage(url);
+
+        imageService.uploadImage(upload("b.jpg", 1));
+
+        // Once on each store of the content, never when an existing row just gains a reference
+        verify(imageDeletionQueue, times(2)).cancel(hash);
+    }
+
+    @Test
+    void urlsTheStoreDidNotIssueAreLeftAlone() {
+        assertTrue(imageService.deleteImage("https://shop.example.com/upload/lamp.jpg"));
+
+        verify(imageDeletionQueue, never()).enqueue(anyString(), any());
+    }
+
+    // Counts change in bulk updates, so read past the persistence context
+    private StoredImage storedImageOf(String url) {
+        entityManager.clear();
+        return storedImageRepository.findAll().stream()
+                .filter(image -> image.getUrl().equals(url))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // A JPEG header followed by filler, so equal seeds give equal bytes
+    private File upload(String name, int seed) throws IOException {
+        byte[] content = new byte[256];
+        content[0] = (byte) 0xFF;
+        content[1] = (byte) 0xD8;
+        content[2] = (byte) 0xFF;
+        for (int i = 3; i < content.length; i++) {
+            content[i] = (byte) (seed * i);
+        }
+        return Files.write(tempDir.resolve(name), content).toFile();
+    }
+}
@@ -0,0 +1,115 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.RSVP;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * No async executor is configured here, so runJob runs on the test thread.
+ */
+@SpringJUnitConfig(InvitationJobService.class)
+class InvitationJobServiceTest {
+
+    private static final Long EVENT_ID = 7L;
+
+    @Autowired
+    private InvitationJobService invitationJobService;
+
+    @MockitoBean
+    private RSVPCounterService rsvpCounterService;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private final AtomicLong ids = new AtomicLong();
+    private final List<Integer> chunkSizes = new ArrayList<>();
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        event = new Event();
+        event.setId(EVENT_ID);
+        // Stands in for the batched insert: hands out ids and records each chunk's size
+        when(rsvpCounterService.saveInvited(eq(EVENT_ID), anyList())).thenAnswer(invocation -> {
+            List<RSVP> rsvps = invocation.getArgument(1);
+            chunkSizes.add(rsvps.size());
+            rsvps.forEach(rsvp -> rsvp.setId(ids.incrementAndGet()));
+            return rsvps;
+        });
+    }
+
+    @Test
+    void guestsAreSavedInGeneratorSizedChunksAndInvalidEmailsFail() {
+        List<String> emails = new ArrayList<>(guests(117));
+        emails.add("not-an-email");
+        emails.add(" ");
+        emails.add(null);
+
+        InvitationJob job = run(emails);
+
+        assertEquals(List.of(RSVP.ID_ALLOCATION_SIZE, RSVP.ID_ALLOCATION_SIZE, 17), chunkSizes);
+        assertEquals(InvitationJob.JobStatus.COMPLETED, job.getStatus());
+        assertEquals(117, job.getTotalSent());
+        assertEquals(3, job.getTotalFailed());
+        verify(emailService, times(117)).sendRSVPInvitation(any(), eq(event), anyLong());
+    }
+
+    @Test
+    void aChunkThatFailsToSaveFailsOnlyItsOwnGuests() {
+        when(rsvpCounterService.saveInvited(eq(EVENT_ID), anyList()))
+                .thenThrow(new IllegalStateException("deadlock"))
+                .thenAnswer(invocation -> {
+                    List<RSVP> rsvps = invocation.getArgument(1);
+                    rsvps.forEach(rsvp -> rsvp.setId(ids.incrementAndGet()));
+                    return rsvps;
+                });
+
+        InvitationJob job = run(guests(60));
+
+        assertEquals(InvitationJob.JobStatus.COMPLETED, job.getStatus());
+        assertEquals(RSVP.ID_ALLOCATION_SIZE, job.getTotalFailed());
+        assertEquals(10, job.getTotalSent());
+    }
+
+    @Test
+    void aFailedEmailIsCountedWithoutStoppingTheChunk() {
+        doThrow(new IllegalStateException("template error"))
+                .when(emailService).sendRSVPInvitation(eq("guest2@example.com"), any(), anyLong());
+
+        InvitationJob job = run(guests(5));
+
+        assertEquals(4, job.getTotalSent());
+        assertEquals(1, job.getTotalFailed());
+        assertSame(job, invitationJobService.getJob(job.getId()));
+    }
+
+    private InvitationJob run(List<String> emails) {
+        InvitationJob job = invitationJobService.createJob(EVENT_ID, emails);
+        invitationJobService.runJob(job, event, emails);
+        return job;
+    }
+
+    private static List<String> guests(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "guest" + i + "@example.com").toList();
+    }
+}
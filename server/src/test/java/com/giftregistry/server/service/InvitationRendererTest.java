@@ -0,0 +1,63 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.User;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvitationRendererTest {
+
+    private final InvitationRenderer renderer = new InvitationRenderer(templateEngine(), "https://gifts.example.com");
+
+    @Test
+    void splicedInvitationMatchesAFullRender() {
+        Event event = event();
+
+        for (long rsvpId : new long[] { 1, 42, 1_000_000, Long.MAX_VALUE }) {
+            String html = renderer.render(event, rsvpId);
+            assertTrue(html.contains("/rsvp/" + rsvpId + "/respond/accepted"));
+            assertEquals(renderer.renderFromScratch(event, String.valueOf(rsvpId)), html);
+        }
+    }
+
+    @Test
+    void newContentVersionIsRenderedAgain() {
+        Event event = event();
+        renderer.render(event, 1L);
+
+        // Same version, so the cached copy would still be served
+        event.setName("Renamed party");
+        assertTrue(renderer.render(event, 1L).contains("Birthday party"));
+
+        event.setContentVersion(1);
+        String html = renderer.render(event, 1L);
+        assertTrue(html.contains("Renamed party"));
+        assertEquals(renderer.renderFromScratch(event, "1"), html);
+    }
+
+    private static Event event() {
+        User creator = new User("creator@example.com", "secret");
+        creator.setUsername("creator");
+        Event event = new Event("Birthday party", LocalDate.of(2026, 12, 5), creator, "Cake", Event.EventType.BIRTHDAY);
+        event.setId(7L);
+        event.setEventKey("KEY7");
+        event.setLocation("Town hall");
+        return event;
+    }
+
+    private static TemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+}
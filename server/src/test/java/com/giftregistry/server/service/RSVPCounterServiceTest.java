@@ -0,0 +1,173 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.model.Event;
+import com.giftregistry.server.model.RSVP;
+import com.giftregistry.server.model.User;
+import com.giftregistry.server.repository.EventRepository;
+import com.giftregistry.server.repository.RSVPRepository;
+import com.giftregistry.server.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs outside a test transaction so concurrent writers and cold loads each commit on their own.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(RSVPCounterService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RSVPCounterServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int WRITES_PER_THREAD = 25;
+
+    @Autowired
+    private RSVPCounterService rsvpCounterService;
+
+    @Autowired
+    private RSVPRepository rsvpRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        User creator = new User("creator@example.com", "secret");
+        creator.setUsername("creator");
+        creator = userRepository.save(creator);
+        event = eventRepository.save(new Event("Party", LocalDate.now().plusDays(5), creator,
+                "Description", Event.EventType.BIRTHDAY));
+    }
+
+    @AfterEach
+    void tearDown() {
+        rsvpCounterService.evict(event.getId());
+        rsvpRepository.deleteAll();
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentResponsesToOneRsvpMoveItOnce() throws Exception {
+        RSVP rsvp = rsvpCounterService.saveInvited(event.getId(), List.of(invite("guest@example.com"))).get(0);
+        rsvpCounterService.getCounts(event.getId());
+
+        // Every thread read PENDING; only one conditional update can apply
+        List<Boolean> results = runConcurrently(i -> rsvpCounterService.respond(event.getId(), rsvp.getId(),
+                RSVP.RSVPStatus.PENDING,
+                i % 2 == 0 ? RSVP.RSVPStatus.ACCEPTED : RSVP.RSVPStatus.DECLINED,
+                LocalDateTime.now()));
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        Map<RSVP.RSVPStatus, Long> counts = rsvpCounterService.getCounts(event.getId());
+        assertEquals(0L, counts.get(RSVP.RSVPStatus.PENDING));
+        assertEquals(1L, counts.get(RSVP.RSVPStatus.ACCEPTED) + counts.get(RSVP.RSVPStatus.DECLINED));
+        assertEquals(countsInDatabase(), counts);
+    }
+
+    @Test
+    void writesRacingColdLoadsAreNeitherLostNorCountedTwice() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService loader = Executors.newSingleThreadExecutor();
+        // Keeps dropping and reloading the counts while invites and responses land
+        Future<?> reloads = loader.submit(() -> {
+            while (writing.get()) {
+                rsvpCounterService.evict(event.getId());
+                rsvpCounterService.getCounts(event.getId());
+            }
+        });
+        try {
+            runConcurrently(i -> {
+                for (int n = 0; n < WRITES_PER_THREAD; n++) {
+                    RSVP rsvp = rsvpCounterService.saveInvited(event.getId(),
+                            List.of(invite("guest" + i + "-" + n + "@example.com"))).get(0);
+                    if (n % 2 == 0) {
+                        rsvpCounterService.respond(event.getId(), rsvp.getId(), RSVP.RSVPStatus.PENDING,
+                                RSVP.RSVPStatus.ACCEPTED, LocalDateTime.now());
+                    }
+                }
+                return true;
+            });
+        } finally {
+            writing.set(false);
+            reloads.get(30, TimeUnit.SECONDS);
+            loader.shutdown();
+        }
+
+        Map<RSVP.RSVPStatus, Long> counts = rsvpCounterService.getCounts(event.getId());
+        assertEquals((long) THREADS * WRITES_PER_THREAD, counts.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(countsInDatabase(), counts);
+    }
+
+    private RSVP invite(String email) {
+        RSVP rsvp = new RSVP();
+        rsvp.setGuestEmail(email);
+        rsvp.setEvent(event);
+        return rsvp;
+    }
+
+    private Map<RSVP.RSVPStatus, Long> countsInDatabase() {
+        Map<RSVP.RSVPStatus, Long> counts = new EnumMap<>(RSVP.RSVPStatus.class);
+        for (RSVP.RSVPStatus status : RSVP.RSVPStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : rsvpRepository.countByStatusForEvent(event.getId())) {
+            counts.put((RSVP.RSVPStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private interface Task<T> {
+        T run(int thread) throws Exception;
+    }
+
+    private static <T> List<T> runConcurrently(Task<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                Callable<T> call = () -> {
+                    start.await();
+                    return task.run(thread);
+                };
+                futures.add(pool.submit(call));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
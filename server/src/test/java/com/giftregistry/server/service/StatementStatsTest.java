@@ -0,0 +1,74 @@
+package com.giftregistry.server.service;
+
+import com.giftregistry.server.Config.TimedDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementStatsTest {
+
+    @Test
+    void literalsAndInListsCollapseToOneShape() {
+        assertEquals("select * from gifts g where g.event_id in (?...) and g.name = ? limit ?",
+                StatementStats.shapeOf("select *\n  from gifts g where g.event_id in (?, ?,?) and g.name = 'it''s' limit 10"));
+        assertEquals("select ce1_0.id from events ce1_0 where ce1_0.id=?",
+                StatementStats.shapeOf("select ce1_0.id from events ce1_0 where ce1_0.id=?"));
+    }
+
+    @Test
+    void percentilesAndSlowCountsArePerShape() {
+        StatementStats stats = new StatementStats(50, 0, 10);
+        for (int i = 0; i < 98; i++) {
+            stats.record("select * from gifts where id = ?", 1_000_000);
+        }
+        stats.record("select * from gifts where id = ?", 80_000_000);
+        stats.record("select * from gifts where id = ?", 120_000_000);
+        stats.record("delete from rsvps where id = 7", 2_000_000);
+
+        Map<String, Object> gifts = shape(stats, "select * from gifts where id = ?");
+        assertEquals(100L, gifts.get("count"));
+        assertEquals(2L, gifts.get("slow"));
+        assertBetween(1.0, 1.25, (double) gifts.get("p50Millis"));
+        assertBetween(1.0, 1.25, (double) gifts.get("p95Millis"));
+        assertBetween(80.0, 100.0, (double) gifts.get("p99Millis"));
+        assertEquals(120.0, gifts.get("maxMillis"));
+        assertEquals(1L, shape(stats, "delete from rsvps where id = ?").get("count"));
+    }
+
+    @Test
+    void timedDataSourceRecordsEveryStatementKind() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-stats;DB_CLOSE_DELAY=-1");
+        StatementStats stats = new StatementStats(200, 0, 10);
+        JdbcTemplate jdbc = new JdbcTemplate(new TimedDataSource(h2, () -> stats));
+
+        jdbc.execute("create table notes (id bigint primary key, body varchar(20))");
+        jdbc.batchUpdate("insert into notes (id, body) values (?, ?)",
+                List.of(new Object[]{1, "a"}, new Object[]{2, "b"}));
+        for (int i = 0; i < 3; i++) {
+            jdbc.queryForObject("select count(*) from notes where id > ?", Long.class, 0);
+        }
+
+        assertEquals(1L, shape(stats, "create table notes (id bigint primary key, body varchar(?))").get("count"));
+        assertEquals(1L, shape(stats, "insert into notes (id, body) values (?...)").get("count"));
+        assertEquals(3L, shape(stats, "select count(*) from notes where id > ?").get("count"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> shape(StatementStats stats, String shape) {
+        return ((List<Map<String, Object>>) stats.stats().get("shapes")).stream()
+                .filter(s -> s.get("shape").equals(shape))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(shape + " not in " + stats.stats().get("shapes")));
+    }
+
+    private static void assertBetween(double low, double high, double actual) {
+        assertTrue(actual >= low && actual <= high, () -> actual + " not in [" + low + ", " + high + "]");
+    }
+}
@@ -0,0 +1,23 @@
+-- A database as Hibernate's ddl-auto=update left it before Flyway took over, with a few rows in it.
+-- Names follow Hibernate's generated DDL rather than the migrations, as they would in production.
+create table users (id bigint not null auto_increment, created_at datetime(6), email varchar(255) not null, image text, location varchar(255), name varchar(255), password varchar(255) not null, updated_at datetime(6), username varchar(255) not null, primary key (id)) engine=InnoDB;
+create table user_social_links (user_id bigint not null, link varchar(255), platform varchar(255) not null, primary key (user_id, platform)) engine=InnoDB;
+create table events (id bigint not null auto_increment, created_at datetime(6), event_date date not null, description varchar(255) not null, event_key varchar(255), location varchar(255), name varchar(255) not null, type enum ('ANNIVERSARY','BIRTHDAY','HOLIDAY','OTHER','WEDDING') not null, updated_at datetime(6), creator_id bigint, primary key (id)) engine=InnoDB;
+create table gifts (id bigint not null auto_increment, created_at datetime(6), description varchar(500), image text, price decimal(38,2) not null, product_url text, recipient varchar(255) not null, status enum ('CANCELLED','PLANNED','PURCHASED') not null, store varchar(255) not null, updated_at datetime(6), event_id bigint, name varchar(255) not null, planned_by_id bigint, primary key (id)) engine=InnoDB;
+create table rsvps (id bigint not null auto_increment, created_at datetime(6), guest_email varchar(255) not null, responded_at datetime(6), status enum ('ACCEPTED','DECLINED','PENDING') not null, event_id bigint, primary key (id)) engine=InnoDB;
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table events add constraint UKl4fu0u4vtpc0a8m5ffd3bv8mv unique (event_key);
+alter table user_social_links add constraint FKmx5x2yo1ux1wk1o6w1nvp8iu8 foreign key (user_id) references users (id);
+alter table events add constraint FK4jvyrh58c3c1q0lqnbbkelkc8 foreign key (creator_id) references users (id);
+alter table gifts add constraint FKq6kyuqy2uwcc6tgj0iwov7prm foreign key (event_id) references events (id);
+alter table gifts add constraint FK7pj5j4mpbbvfpljjw4ldjn7ak foreign key (planned_by_id) references users (id);
+alter table rsvps add constraint FKn2k7a7nt8jvqkxx3qk3w3fjs6 foreign key (event_id) references events (id);
+
+insert into users (id, email, password, username) values (1, 'host@example.com', 'secret', 'host');
+insert into events (id, event_date, description, name, type, creator_id) values (1, '2026-12-24', 'Party', 'Party', 'BIRTHDAY', 1);
+insert into gifts (id, name, recipient, price, store, status, image, event_id, planned_by_id)
+values (1, 'Lamp', 'Sam', 10.00, 'Shop', 'PLANNED', 'https://img.example.com/lamp.jpg', 1, 1),
+       (2, 'Book', 'Sam', 5.00, 'Shop', 'PLANNED', null, 1, 1);
+-- Ids handed out by AUTO_INCREMENT before RSVPs switched to the table generator
+insert into rsvps (id, guest_email, status, event_id) values (7, 'a@example.com', 'PENDING', 1), (120, 'b@example.com', 'ACCEPTED', 1);